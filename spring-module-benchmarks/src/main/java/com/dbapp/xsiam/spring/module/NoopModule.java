@@ -0,0 +1,76 @@
+package com.dbapp.xsiam.spring.module;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 基准测试使用的空模块，初始化和销毁不做任何工作，只测量框架自身的开销
+ */
+public class NoopModule extends AbstractModule {
+
+    public NoopModule(String name, Set<String> dependencies, String... basePackages) {
+        super(name, "1.0.0", 0, dependencies, basePackages);
+    }
+
+    @Override
+    protected void doInitialize() {
+    }
+
+    @Override
+    protected void doDestroy() {
+    }
+
+    /**
+     * 创建分层的依赖图，每个模块依赖上一层中随机的若干模块
+     *
+     * @param moduleCount 模块数量
+     * @param layerWidth  每层模块数量
+     * @param fanIn       每个模块的依赖数量
+     * @param seed        随机种子，保证每次运行的图相同
+     * @return 按名称顺序排列的模块列表
+     */
+    public static List<Module> layeredGraph(int moduleCount, int layerWidth, int fanIn, long seed) {
+        Random random = new Random(seed);
+        List<Module> modules = new ArrayList<>(moduleCount);
+        for (int i = 0; i < moduleCount; i++) {
+            Set<String> dependencies = new HashSet<>();
+            int layerStart = (i / layerWidth) * layerWidth;
+            if (layerStart > 0) {
+                int previousLayerStart = layerStart - layerWidth;
+                for (int d = 0; d < fanIn; d++) {
+                    dependencies.add(moduleName(previousLayerStart + random.nextInt(layerWidth)));
+                }
+            }
+            modules.add(new NoopModule(moduleName(i), dependencies));
+        }
+        return modules;
+    }
+
+    /**
+     * 创建随机依赖图，每个模块依赖编号更小的随机若干模块，不存在循环依赖
+     *
+     * @param moduleCount 模块数量
+     * @param fanIn       每个模块的依赖数量
+     * @param seed        随机种子，保证每次运行的图相同
+     * @return 按名称顺序排列的模块列表
+     */
+    public static List<Module> randomGraph(int moduleCount, int fanIn, long seed) {
+        Random random = new Random(seed);
+        List<Module> modules = new ArrayList<>(moduleCount);
+        for (int i = 0; i < moduleCount; i++) {
+            Set<String> dependencies = new HashSet<>();
+            for (int d = 0; d < fanIn && i > 0; d++) {
+                dependencies.add(moduleName(random.nextInt(i)));
+            }
+            modules.add(new NoopModule(moduleName(i), dependencies));
+        }
+        return modules;
+    }
+
+    public static String moduleName(int index) {
+        return "module-" + index;
+    }
+}
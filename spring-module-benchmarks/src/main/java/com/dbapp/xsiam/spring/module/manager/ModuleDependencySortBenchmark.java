@@ -0,0 +1,54 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.NoopModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 依赖排序基准测试，在合成的依赖图上测量依赖图分析（循环依赖检查和拓扑排序）的耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModuleDependencySortBenchmark {
+
+    /**
+     * 依赖图的形状：LAYERED为每层100个模块的分层图，RANDOM为依赖任意更小编号模块的随机图
+     */
+    @Param({"LAYERED", "RANDOM"})
+    private String shape;
+
+    @Param({"1000", "10000"})
+    private int moduleCount;
+
+    private List<Module> modules;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        modules = "LAYERED".equals(shape)
+                ? NoopModule.layeredGraph(moduleCount, 100, 3, 42L)
+                : NoopModule.randomGraph(moduleCount, 3, 42L);
+    }
+
+    @Benchmark
+    public ModuleDependencyGraph buildDependencyGraph() {
+        return ModuleDependencyGraph.build(modules);
+    }
+}
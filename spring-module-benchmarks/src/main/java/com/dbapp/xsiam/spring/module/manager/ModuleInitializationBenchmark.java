@@ -0,0 +1,72 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.NoopModule;
+import com.dbapp.xsiam.spring.module.enums.ModuleState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 初始化调度基准测试，所有模块都是空模块，测量{@link ModuleLifecycleManager#initializeAllModules()}
+ * 排序、调度、事件和状态变更的整体开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModuleInitializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int moduleCount;
+
+    @Param({"4"})
+    private int threadPoolSize;
+
+    private List<Module> modules;
+    private ModuleLifecycleManager manager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        modules = NoopModule.layeredGraph(moduleCount, 10, 2, 42L);
+        ModuleRegistry registry = new ModuleRegistry();
+        modules.forEach(registry::registerModule);
+        manager = new ModuleLifecycleManager(registry, threadPoolSize, 60000, event -> {
+        });
+    }
+
+    /**
+     * 每次调用前把模块重置为已注册状态，使下一次调用重新初始化全部模块
+     */
+    @Setup(Level.Invocation)
+    public void resetModules() {
+        for (Module module : modules) {
+            module.setState(ModuleState.REGISTERED);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Benchmark
+    public void initializeAllModules() {
+        manager.initializeAllModules();
+    }
+}
@@ -0,0 +1,82 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.NoopModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 包路径查找基准测试，测量不同模块数量下{@link ModuleRegistry#findModuleByPackage(String)}命中和未命中的耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModulePackageLookupBenchmark {
+
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"10", "100", "1000"})
+    private int moduleCount;
+
+    /**
+     * 每个模块声明的基础包数量
+     */
+    @Param({"1", "4"})
+    private int packagesPerModule;
+
+    private ModuleRegistry registry;
+    private String[] hitQueries;
+    private String[] missQueries;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        registry = new ModuleRegistry();
+        for (int i = 0; i < moduleCount; i++) {
+            String[] basePackages = new String[packagesPerModule];
+            for (int p = 0; p < packagesPerModule; p++) {
+                basePackages[p] = basePackage(i, p);
+            }
+            registry.registerModule(new NoopModule(NoopModule.moduleName(i), Collections.emptySet(), basePackages));
+        }
+
+        Random random = new Random(42L);
+        hitQueries = new String[QUERY_COUNT];
+        missQueries = new String[QUERY_COUNT];
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            String basePackage = basePackage(random.nextInt(moduleCount), random.nextInt(packagesPerModule));
+            hitQueries[q] = basePackage + ".service.impl";
+            missQueries[q] = "org.example.unrelated" + q + ".service";
+        }
+    }
+
+    private static String basePackage(int module, int index) {
+        return "com.example.product.module" + module + ".part" + index;
+    }
+
+    @Benchmark
+    public Module findModuleByPackageHit() {
+        return registry.findModuleByPackage(hitQueries[cursor++ & (QUERY_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public Module findModuleByPackageMiss() {
+        return registry.findModuleByPackage(missQueries[cursor++ & (QUERY_COUNT - 1)]);
+    }
+}
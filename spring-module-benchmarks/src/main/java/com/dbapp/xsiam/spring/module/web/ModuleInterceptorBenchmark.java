@@ -0,0 +1,104 @@
+package com.dbapp.xsiam.spring.module.web;
+
+import com.dbapp.xsiam.spring.module.manager.ModuleRegistry;
+import com.dbapp.xsiam.spring.module.web.controller.AnnotatedModuleController;
+import com.dbapp.xsiam.spring.module.web.controller.InitializingModuleController;
+import com.dbapp.xsiam.spring.module.web.controller.ModuleInterceptorFixtures;
+import com.dbapp.xsiam.spring.module.web.controller.PlainController;
+import com.dbapp.xsiam.spring.module.web.controller.scanned.PackageModuleController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 拦截器基准测试，测量{@link ModuleInterceptor#preHandle}在各条模块解析路径上的耗时：
+ * <ul>
+ *     <li>gate*：请求映射已构建门禁表，按方法直接查找门禁</li>
+ *     <li>fallback*：没有请求映射，按注解或包路径解析模块</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleInterceptorBenchmark {
+
+    private ModuleInterceptor gateInterceptor;
+    private ModuleInterceptor fallbackInterceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private HandlerMethod annotatedHandler;
+    private HandlerMethod scannedHandler;
+    private HandlerMethod plainHandler;
+    private HandlerMethod initializingHandler;
+    private Object resourceHandler;
+
+    @Setup
+    public void setUp() {
+        ModuleRegistry registry = ModuleInterceptorFixtures.createRegistry();
+
+        gateInterceptor = new ModuleInterceptor(registry);
+        gateInterceptor.setModuleRequestMappingHandlerMapping(ModuleInterceptorFixtures.createHandlerMapping(registry));
+        gateInterceptor.setRequestParkingEnabled(false);
+        fallbackInterceptor = new ModuleInterceptor(registry);
+        fallbackInterceptor.setRequestParkingEnabled(false);
+
+        request = new MockHttpServletRequest("GET", "/benchmark");
+        response = new MockHttpServletResponse();
+        annotatedHandler = ModuleInterceptorFixtures.statusHandler(AnnotatedModuleController.class);
+        scannedHandler = ModuleInterceptorFixtures.statusHandler(PackageModuleController.class);
+        plainHandler = ModuleInterceptorFixtures.statusHandler(PlainController.class);
+        initializingHandler = ModuleInterceptorFixtures.statusHandler(InitializingModuleController.class);
+        resourceHandler = new Object();
+    }
+
+    @Benchmark
+    public boolean gateReadyModule() throws Exception {
+        return gateInterceptor.preHandle(request, response, annotatedHandler);
+    }
+
+    @Benchmark
+    public boolean gateNonModuleController() throws Exception {
+        return gateInterceptor.preHandle(request, response, plainHandler);
+    }
+
+    @Benchmark
+    public boolean gateRejected() throws Exception {
+        response.reset();
+        return gateInterceptor.preHandle(request, response, initializingHandler);
+    }
+
+    @Benchmark
+    public boolean fallbackAnnotatedModule() throws Exception {
+        return fallbackInterceptor.preHandle(request, response, annotatedHandler);
+    }
+
+    @Benchmark
+    public boolean fallbackPackageModule() throws Exception {
+        return fallbackInterceptor.preHandle(request, response, scannedHandler);
+    }
+
+    @Benchmark
+    public boolean fallbackNonModuleController() throws Exception {
+        return fallbackInterceptor.preHandle(request, response, plainHandler);
+    }
+
+    @Benchmark
+    public boolean nonHandlerMethod() throws Exception {
+        return gateInterceptor.preHandle(request, response, resourceHandler);
+    }
+}
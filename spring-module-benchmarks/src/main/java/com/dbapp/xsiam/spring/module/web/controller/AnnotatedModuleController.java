@@ -0,0 +1,16 @@
+package com.dbapp.xsiam.spring.module.web.controller;
+
+import com.dbapp.xsiam.spring.module.annotation.ModuleController;
+import org.springframework.web.bind.annotation.GetMapping;
+
+/**
+ * 通过注解声明所属模块的控制器
+ */
+@ModuleController(module = ModuleInterceptorFixtures.ANNOTATED_MODULE)
+public class AnnotatedModuleController {
+
+    @GetMapping("/annotated/status")
+    public String status() {
+        return "OK";
+    }
+}
@@ -0,0 +1,16 @@
+package com.dbapp.xsiam.spring.module.web.controller;
+
+import com.dbapp.xsiam.spring.module.annotation.ModuleController;
+import org.springframework.web.bind.annotation.GetMapping;
+
+/**
+ * 所属模块始终处于初始化中的控制器，请求总是被拒绝
+ */
+@ModuleController(module = ModuleInterceptorFixtures.INITIALIZING_MODULE)
+public class InitializingModuleController {
+
+    @GetMapping("/initializing/status")
+    public String status() {
+        return "OK";
+    }
+}
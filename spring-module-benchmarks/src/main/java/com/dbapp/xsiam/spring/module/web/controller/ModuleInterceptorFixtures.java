@@ -0,0 +1,78 @@
+package com.dbapp.xsiam.spring.module.web.controller;
+
+import com.dbapp.xsiam.spring.module.NoopModule;
+import com.dbapp.xsiam.spring.module.enums.ModuleState;
+import com.dbapp.xsiam.spring.module.manager.ModuleRegistry;
+import com.dbapp.xsiam.spring.module.web.ModuleRequestMappingHandlerMapping;
+import com.dbapp.xsiam.spring.module.web.controller.scanned.PackageModuleController;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Collections;
+
+/**
+ * 拦截器基准测试的模块和控制器
+ */
+public final class ModuleInterceptorFixtures {
+
+    public static final String ANNOTATED_MODULE = "annotated";
+    public static final String SCANNED_MODULE = "scanned";
+    public static final String INITIALIZING_MODULE = "initializing";
+
+    private ModuleInterceptorFixtures() {
+    }
+
+    /**
+     * 创建注册了全部基准测试模块的注册中心，其中{@link #INITIALIZING_MODULE}保持初始化中状态
+     *
+     * @return 模块注册中心
+     */
+    public static ModuleRegistry createRegistry() {
+        ModuleRegistry registry = new ModuleRegistry();
+        registry.registerModule(new NoopModule(ANNOTATED_MODULE, Collections.emptySet()));
+        registry.registerModule(new NoopModule(SCANNED_MODULE, Collections.emptySet(),
+                PackageModuleController.class.getPackageName()));
+        registry.registerModule(new NoopModule(INITIALIZING_MODULE, Collections.emptySet()));
+
+        for (String moduleName : new String[]{ANNOTATED_MODULE, SCANNED_MODULE, INITIALIZING_MODULE}) {
+            registry.getModule(moduleName).setState(ModuleState.INITIALIZING);
+        }
+        registry.getModule(ANNOTATED_MODULE).setState(ModuleState.READY);
+        registry.getModule(SCANNED_MODULE).setState(ModuleState.READY);
+        return registry;
+    }
+
+    /**
+     * 创建已注册全部基准测试控制器的请求映射，门禁表在此时构建
+     *
+     * @param registry 模块注册中心
+     * @return 请求映射
+     */
+    public static ModuleRequestMappingHandlerMapping createHandlerMapping(ModuleRegistry registry) {
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean(AnnotatedModuleController.class);
+        context.registerBean(InitializingModuleController.class);
+        context.registerBean(PlainController.class);
+        context.registerBean(PackageModuleController.class);
+        context.refresh();
+
+        ModuleRequestMappingHandlerMapping mapping = new ModuleRequestMappingHandlerMapping(registry);
+        mapping.setApplicationContext(context);
+        mapping.afterPropertiesSet();
+        return mapping;
+    }
+
+    /**
+     * 创建控制器的status方法
+     *
+     * @param controllerClass 控制器类型
+     * @return 控制器方法
+     */
+    public static HandlerMethod statusHandler(Class<?> controllerClass) {
+        try {
+            return new HandlerMethod(controllerClass.getDeclaredConstructor().newInstance(), "status");
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create handler for " + controllerClass, e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.dbapp.xsiam.spring.module.web.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 不属于任何模块的控制器
+ */
+@RestController
+public class PlainController {
+
+    @GetMapping("/plain/status")
+    public String status() {
+        return "OK";
+    }
+}
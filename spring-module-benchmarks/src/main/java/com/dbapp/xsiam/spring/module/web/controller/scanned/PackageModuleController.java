@@ -0,0 +1,16 @@
+package com.dbapp.xsiam.spring.module.web.controller.scanned;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 通过所在包路径归属模块的控制器
+ */
+@RestController
+public class PackageModuleController {
+
+    @GetMapping("/scanned/status")
+    public String status() {
+        return "OK";
+    }
+}
@@ -1,12 +1,22 @@
 package com.dbapp.xsiam.spring.module;
 
 import com.dbapp.xsiam.spring.module.enums.ModuleState;
+import com.dbapp.xsiam.spring.module.event.ModuleProgressListener;
+import com.dbapp.xsiam.spring.module.event.ModuleStateListener;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.Assert;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 模块抽象实现类，提供模块接口的基本实现
@@ -14,13 +24,32 @@ import java.util.Set;
 @Slf4j
 public abstract class AbstractModule implements Module {
 
+    private static final ModuleState[] STATES = ModuleState.values();
+    private static final int STATE_BITS = 8;
+    private static final long STATE_MASK = (1L << STATE_BITS) - 1;
+
     protected final String name;
     protected final String version;
     protected final int order;
     protected final Set<String> dependencies;
     protected final String[] basePackages;
-    protected ModuleState state = ModuleState.UNREGISTERED;
-    protected double progress = 0.0;
+    protected volatile double progress = 0.0;
+    protected volatile long expectedInitTime = 0;
+    protected volatile long initTimeout = 0;
+    protected volatile boolean lazy = false;
+    private volatile Throwable failureCause;
+
+    /**
+     * 保证失败原因与FAILED状态一起变更，迟到的初始化异常不会覆盖超时等已记录的失败原因
+     */
+    private final Object failureMonitor = new Object();
+
+    /**
+     * 状态字，高位为状态版本号，低8位为状态序号，保证状态与版本号原子地一起变更
+     */
+    private final AtomicLong stateWord = new AtomicLong(ModuleState.UNREGISTERED.ordinal());
+    private final List<ModuleStateListener> stateListeners = new CopyOnWriteArrayList<>();
+    private final List<ModuleProgressListener> progressListeners = new CopyOnWriteArrayList<>();
 
     /**
      * 构造函数
@@ -65,22 +94,127 @@ public abstract class AbstractModule implements Module {
         return basePackages;
     }
 
+    @Override
+    public long getExpectedInitTime() {
+        return expectedInitTime;
+    }
+
+    /**
+     * 设置预估初始化耗时
+     *
+     * @param expectedInitTime 预估初始化耗时（毫秒）
+     */
+    public void setExpectedInitTime(long expectedInitTime) {
+        this.expectedInitTime = Math.max(expectedInitTime, 0);
+    }
+
+    @Override
+    public long getInitTimeout() {
+        return initTimeout;
+    }
+
+    /**
+     * 设置初始化超时时间
+     *
+     * @param initTimeout 初始化超时时间（毫秒），0表示不限制
+     */
+    public void setInitTimeout(long initTimeout) {
+        this.initTimeout = Math.max(initTimeout, 0);
+    }
+
+    @Override
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * 设置是否延迟初始化
+     *
+     * @param lazy true表示在首次被请求时才初始化
+     */
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
     @Override
     public void initialize() {
-        if (getState() != ModuleState.REGISTERED) {
+        try {
+            initializeAsync().toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            // 失败已记录在模块状态和失败原因中
+        }
+    }
+
+    @Override
+    public CompletionStage<Void> initializeAsync() {
+        if (!compareAndSetState(ModuleState.REGISTERED, ModuleState.INITIALIZING)) {
             log.warn("Module [{}] is not in REGISTERED state, current state: {}", name, getState());
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
+        failureCause = null;
+        CompletionStage<Void> stage;
         try {
-            setState(ModuleState.INITIALIZING);
             log.info("Module [{}] is initializing...", name);
-            doInitialize();
-            setState(ModuleState.READY);
-            log.info("Module [{}] initialization completed", name);
+            stage = doInitializeAsync();
         } catch (Exception e) {
-            log.error("Module [{}] initialization failed", name, e);
-            setState(ModuleState.FAILED);
+            stage = CompletableFuture.failedFuture(e);
+        }
+        if (stage == null) {
+            stage = CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> source = stage.toCompletableFuture();
+        CompletableFuture<Void> completion = source.handle((result, ex) -> {
+            if (ex == null) {
+                if (compareAndSetState(ModuleState.INITIALIZING, ModuleState.READY)) {
+                    log.info("Module [{}] initialization completed", name);
+                } else {
+                    log.warn("Module [{}] left INITIALIZING state during initialization, current state: {}", name, getState());
+                }
+                return null;
+            }
+
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            log.error("Module [{}] initialization failed", name, cause);
+            failFrom(ModuleState.INITIALIZING, cause);
+            throw new CompletionException(cause);
+        });
+        // 取消返回的Future时一并取消子类返回的异步初始化
+        completion.whenComplete((result, ex) -> {
+            if (completion.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return completion;
+    }
+
+    @Override
+    public boolean markFailed(Throwable cause) {
+        return failFrom(ModuleState.INITIALIZING, cause) || failFrom(ModuleState.REGISTERED, cause);
+    }
+
+    /**
+     * 模块处于期望状态时记录失败原因并变更为FAILED状态，失败原因在状态变更通知前写入
+     *
+     * @param expectedState 期望的当前状态
+     * @param cause         失败原因
+     * @return true如果状态变更成功
+     */
+    private boolean failFrom(ModuleState expectedState, Throwable cause) {
+        synchronized (failureMonitor) {
+            if (getState() != expectedState) {
+                return false;
+            }
+            Throwable previous = failureCause;
+            failureCause = cause;
+            if (compareAndSetState(expectedState, ModuleState.FAILED)) {
+                return true;
+            }
+            failureCause = previous;
+            return false;
         }
     }
 
@@ -89,6 +223,22 @@ public abstract class AbstractModule implements Module {
      */
     protected abstract void doInitialize();
 
+    /**
+     * 执行具体的异步初始化逻辑，默认在调用线程上同步执行{@link #doInitialize()}；
+     * 需要等待I/O的子类可以覆盖该方法，返回在初始化完成时完成的CompletionStage
+     *
+     * @return 初始化结果
+     */
+    protected CompletionStage<Void> doInitializeAsync() {
+        doInitialize();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public Throwable getFailureCause() {
+        return failureCause;
+    }
+
     @Override
     public double getProgress() {
         return progress;
@@ -96,12 +246,86 @@ public abstract class AbstractModule implements Module {
 
     @Override
     public ModuleState getState() {
-        return state;
+        return STATES[(int) (stateWord.get() & STATE_MASK)];
+    }
+
+    @Override
+    public long getStateVersion() {
+        return stateWord.get() >>> STATE_BITS;
     }
 
     @Override
     public void setState(ModuleState state) {
-        this.state = state;
+        Assert.notNull(state, "Module state must not be null");
+        while (true) {
+            long current = stateWord.get();
+            ModuleState currentState = STATES[(int) (current & STATE_MASK)];
+            if (currentState == state) {
+                return;
+            }
+            if (!currentState.canTransitionTo(state)) {
+                throw new IllegalStateException("Illegal state transition for module [" + name + "]: "
+                        + currentState + " -> " + state);
+            }
+            if (stateWord.compareAndSet(current, nextStateWord(current, state))) {
+                fireStateChange(currentState, state);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean compareAndSetState(ModuleState expectedState, ModuleState newState) {
+        if (!expectedState.canTransitionTo(newState)) {
+            return false;
+        }
+        while (true) {
+            long current = stateWord.get();
+            if (STATES[(int) (current & STATE_MASK)] != expectedState) {
+                return false;
+            }
+            if (stateWord.compareAndSet(current, nextStateWord(current, newState))) {
+                fireStateChange(expectedState, newState);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void addStateListener(ModuleStateListener listener) {
+        Assert.notNull(listener, "Listener must not be null");
+        stateListeners.add(listener);
+    }
+
+    @Override
+    public void removeStateListener(ModuleStateListener listener) {
+        stateListeners.remove(listener);
+    }
+
+    @Override
+    public void addProgressListener(ModuleProgressListener listener) {
+        Assert.notNull(listener, "Listener must not be null");
+        progressListeners.add(listener);
+    }
+
+    @Override
+    public void removeProgressListener(ModuleProgressListener listener) {
+        progressListeners.remove(listener);
+    }
+
+    private void fireStateChange(ModuleState previousState, ModuleState currentState) {
+        for (ModuleStateListener listener : stateListeners) {
+            try {
+                listener.onStateChange(this, previousState, currentState);
+            } catch (Exception e) {
+                log.error("Module [{}] state listener failed", name, e);
+            }
+        }
+    }
+
+    private static long nextStateWord(long current, ModuleState state) {
+        long version = (current >>> STATE_BITS) + 1;
+        return (version << STATE_BITS) | state.ordinal();
     }
 
     @Override
@@ -126,6 +350,7 @@ public abstract class AbstractModule implements Module {
      * @param progress 进度值，范围0.0-1.0
      */
     protected void updateProgress(double progress) {
+        double previous = this.progress;
         if (progress < 0.0) {
             this.progress = 0.0;
         } else if (progress > 1.0) {
@@ -133,6 +358,17 @@ public abstract class AbstractModule implements Module {
         } else {
             this.progress = progress;
         }
+
+        double current = this.progress;
+        if (current != previous) {
+            for (ModuleProgressListener listener : progressListeners) {
+                try {
+                    listener.onProgressChange(this, current);
+                } catch (Exception e) {
+                    log.error("Module [{}] progress listener failed", name, e);
+                }
+            }
+        }
     }
 
     @Override
@@ -140,7 +376,7 @@ public abstract class AbstractModule implements Module {
         return "Module{" +
                 "name='" + name + '\'' +
                 ", version='" + version + '\'' +
-                ", state=" + state +
+                ", state=" + getState() +
                 ", progress=" + progress +
                 '}';
     }
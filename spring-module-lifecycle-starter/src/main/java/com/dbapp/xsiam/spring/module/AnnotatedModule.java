@@ -1,20 +1,27 @@
 package com.dbapp.xsiam.spring.module;
 
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Method;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 
 /**
  * 基于注解的模块实现类，支持通过注解配置初始化和销毁方法
+ * <p>
+ * 初始化和销毁方法在创建模块时绑定为{@link ModuleMethodInvoker}，方法抛出的异常原样传播；
+ * 初始化方法声明返回{@link CompletionStage}时以异步方式初始化，不占用初始化线程
  */
 @Slf4j
 public class AnnotatedModule extends AbstractModule {
 
     private final Object targetBean;
-    private final Method initMethod;
-    private final Method destroyMethod;
+    private final ModuleMethodInvoker initInvoker;
+    private final ModuleMethodInvoker destroyInvoker;
 
     /**
      * 构造函数
@@ -36,36 +43,94 @@ public class AnnotatedModule extends AbstractModule {
                            Object targetBean,
                            Method initMethod,
                            Method destroyMethod) {
+        this(name, version, order, dependencies, basePackages, targetBean,
+                initMethod != null ? ModuleMethodInvoker.bind(targetBean, initMethod) : null,
+                destroyMethod != null ? ModuleMethodInvoker.bind(targetBean, destroyMethod) : null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param name           模块名称
+     * @param version        模块版本
+     * @param order          初始化顺序
+     * @param dependencies   依赖模块集合
+     * @param basePackages   基础包路径
+     * @param targetBean     目标Bean对象
+     * @param initInvoker    初始化方法调用器
+     * @param destroyInvoker 销毁方法调用器
+     */
+    public AnnotatedModule(String name,
+                           String version,
+                           int order,
+                           Set<String> dependencies,
+                           String[] basePackages,
+                           Object targetBean,
+                           ModuleMethodInvoker initInvoker,
+                           ModuleMethodInvoker destroyInvoker) {
         super(name, version, order, dependencies, basePackages);
         this.targetBean = targetBean;
-        this.initMethod = initMethod;
-        this.destroyMethod = destroyMethod;
+        this.initInvoker = initInvoker;
+        this.destroyInvoker = destroyInvoker;
     }
 
     @Override
+    @SneakyThrows
     protected void doInitialize() {
-        if (initMethod != null) {
-            ReflectionUtils.makeAccessible(initMethod);
-            try {
-                initMethod.invoke(targetBean);
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to initialize module: " + name, e);
-            }
+        if (initInvoker != null) {
+            await(initInvoker.invoke());
+        }
+    }
+
+    @Override
+    @SneakyThrows
+    protected CompletionStage<Void> doInitializeAsync() {
+        if (initInvoker == null || !initInvoker.isAsync()) {
+            return super.doInitializeAsync();
+        }
+
+        CompletionStage<?> stage = (CompletionStage<?>) initInvoker.invoke();
+        if (stage == null) {
+            return CompletableFuture.completedFuture(null);
         }
+
+        // 取消返回的Future（如初始化超时）时一并取消初始化方法返回的原始Future
+        CompletableFuture<?> source = stage.toCompletableFuture();
+        CompletableFuture<Void> completion = source.thenApply(result -> null);
+        completion.whenComplete((result, ex) -> {
+            if (completion.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return completion;
     }
 
     @Override
     protected void doDestroy() {
-        if (destroyMethod != null) {
-            ReflectionUtils.makeAccessible(destroyMethod);
+        if (destroyInvoker != null) {
             try {
-                destroyMethod.invoke(targetBean);
-            } catch (Exception e) {
+                await(destroyInvoker.invoke());
+            } catch (Throwable e) {
                 log.error("Failed to destroy module: {}", name, e);
             }
         }
     }
 
+    /**
+     * 方法返回CompletionStage时等待其完成，并抛出其原始异常
+     *
+     * @param result 方法返回值
+     */
+    private static void await(Object result) throws Throwable {
+        if (result instanceof CompletionStage<?> stage) {
+            try {
+                stage.toCompletableFuture().get();
+            } catch (ExecutionException | CompletionException e) {
+                throw e.getCause() != null ? e.getCause() : e;
+            }
+        }
+    }
+
     /**
      * 获取目标Bean对象
      *
@@ -74,4 +139,4 @@ public class AnnotatedModule extends AbstractModule {
     public Object getTargetBean() {
         return targetBean;
     }
-} 
\ No newline at end of file
+}
@@ -1,8 +1,12 @@
 package com.dbapp.xsiam.spring.module;
 
 import com.dbapp.xsiam.spring.module.enums.ModuleState;
+import com.dbapp.xsiam.spring.module.event.ModuleProgressListener;
+import com.dbapp.xsiam.spring.module.event.ModuleStateListener;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * 模块接口，定义了模块的基本方法和属性
@@ -44,11 +48,55 @@ public interface Module {
      */
     String[] getBasePackages();
 
+    /**
+     * 获取模块声明的预估初始化耗时，用于初始化调度
+     *
+     * @return 预估初始化耗时（毫秒），0表示未声明
+     */
+    default long getExpectedInitTime() {
+        return 0;
+    }
+
+    /**
+     * 获取模块初始化超时时间，超时后初始化线程会被中断，模块标记为失败
+     *
+     * @return 初始化超时时间（毫秒），0表示不限制
+     */
+    default long getInitTimeout() {
+        return 0;
+    }
+
+    /**
+     * 判断模块是否延迟初始化
+     *
+     * @return true如果模块在首次被请求时才初始化
+     */
+    default boolean isLazy() {
+        return false;
+    }
+
     /**
      * 初始化模块
      */
     void initialize();
 
+    /**
+     * 异步初始化模块，返回的CompletionStage在初始化结束后完成，初始化失败时异常完成
+     * <p>
+     * 等待远程资源等I/O操作的模块应覆盖该方法，在等待期间不占用初始化线程；
+     * 默认实现在调用线程上同步执行{@link #initialize()}
+     *
+     * @return 初始化结果
+     */
+    default CompletionStage<Void> initializeAsync() {
+        try {
+            initialize();
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * 获取模块初始化进度
      *
@@ -56,6 +104,26 @@ public interface Module {
      */
     double getProgress();
 
+    /**
+     * 获取模块最近一次初始化失败的原因
+     *
+     * @return 失败原因，未失败或未记录时返回null
+     */
+    default Throwable getFailureCause() {
+        return null;
+    }
+
+    /**
+     * 将尚未结束初始化的模块标记为失败并记录失败原因，已就绪或已失败的模块保持原状态
+     *
+     * @param cause 失败原因
+     * @return true如果状态变更成功
+     */
+    default boolean markFailed(Throwable cause) {
+        return compareAndSetState(ModuleState.INITIALIZING, ModuleState.FAILED)
+                || compareAndSetState(ModuleState.REGISTERED, ModuleState.FAILED);
+    }
+
     /**
      * 获取模块当前状态
      *
@@ -64,12 +132,73 @@ public interface Module {
     ModuleState getState();
 
     /**
-     * 设置模块状态
+     * 设置模块状态，状态变更需符合{@link ModuleState#canTransitionTo(ModuleState)}的规则
      *
      * @param state 新的模块状态
+     * @throws IllegalStateException 如果状态变更不合法
      */
     void setState(ModuleState state);
 
+    /**
+     * 当前状态等于期望状态且变更合法时，将模块状态变更为新状态
+     *
+     * @param expectedState 期望的当前状态
+     * @param newState      新的模块状态
+     * @return true如果状态变更成功
+     */
+    default boolean compareAndSetState(ModuleState expectedState, ModuleState newState) {
+        if (getState() != expectedState || !expectedState.canTransitionTo(newState)) {
+            return false;
+        }
+        setState(newState);
+        return true;
+    }
+
+    /**
+     * 获取模块状态版本号，每次状态变更递增
+     *
+     * @return 状态版本号
+     */
+    default long getStateVersion() {
+        return 0;
+    }
+
+    /**
+     * 添加模块状态监听器，模块注册中心通过监听器维护就绪快照
+     * <p>
+     * 自定义实现未覆盖该方法时，状态变更不会通知监听器
+     *
+     * @param listener 状态监听器
+     */
+    default void addStateListener(ModuleStateListener listener) {
+    }
+
+    /**
+     * 移除模块状态监听器
+     *
+     * @param listener 状态监听器
+     */
+    default void removeStateListener(ModuleStateListener listener) {
+    }
+
+    /**
+     * 添加模块进度监听器
+     * <p>
+     * 自定义实现未覆盖该方法时，进度变化不会通知监听器
+     *
+     * @param listener 进度监听器
+     */
+    default void addProgressListener(ModuleProgressListener listener) {
+    }
+
+    /**
+     * 移除模块进度监听器
+     *
+     * @param listener 进度监听器
+     */
+    default void removeProgressListener(ModuleProgressListener listener) {
+    }
+
     /**
      * 销毁模块
      */
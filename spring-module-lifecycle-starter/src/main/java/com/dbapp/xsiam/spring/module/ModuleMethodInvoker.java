@@ -0,0 +1,134 @@
+package com.dbapp.xsiam.spring.module;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 模块方法调用器，创建时将无参的初始化或销毁方法绑定为直接调用，调用时不再经过反射
+ * <p>
+ * 优先通过{@link LambdaMetafactory}生成直接调用的函数，无法生成时（如方法所在模块未开放）使用绑定了目标对象的{@link MethodHandle}；
+ * 静态方法不绑定目标对象，直接使用其{@link MethodHandle}；方法抛出的异常原样抛出，不做包装
+ */
+@Slf4j
+public final class ModuleMethodInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class);
+
+    private final Object target;
+    private final Method method;
+    private final Function<Object, Object> function;
+    private final MethodHandle methodHandle;
+
+    private ModuleMethodInvoker(Object target, Method method, Function<Object, Object> function, MethodHandle methodHandle) {
+        this.target = target;
+        this.method = method;
+        this.function = function;
+        this.methodHandle = methodHandle;
+    }
+
+    /**
+     * 绑定目标对象的无参方法
+     *
+     * @param target 目标对象
+     * @param method 无参方法
+     * @return 方法调用器
+     * @throws IllegalArgumentException 如果方法带有参数或无法访问
+     */
+    public static ModuleMethodInvoker bind(Object target, Method method) {
+        Assert.notNull(target, "Target must not be null");
+        Assert.notNull(method, "Method must not be null");
+        Assert.isTrue(method.getParameterCount() == 0,
+                () -> "Module method [" + method + "] must not declare parameters");
+
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (!isStatic) {
+            try {
+                return new ModuleMethodInvoker(target, method, createFunction(method), null);
+            } catch (Throwable e) {
+                log.debug("Cannot create direct invoker for [{}], falling back to method handle", method, e);
+            }
+        }
+
+        try {
+            ReflectionUtils.makeAccessible(method);
+            MethodHandle methodHandle = MethodHandles.lookup().unreflect(method);
+            if (!isStatic) {
+                methodHandle = methodHandle.bindTo(target);
+            }
+            methodHandle = methodHandle.asType(INVOKER_TYPE);
+            return new ModuleMethodInvoker(target, method, null, methodHandle);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access module method [" + method + "]", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createFunction(Method method) throws Throwable {
+        Class<?> declaringClass = method.getDeclaringClass();
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+        MethodHandle implementation = lookup.unreflect(method);
+
+        if (method.getReturnType() == void.class) {
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(Consumer.class),
+                    MethodType.methodType(void.class, Object.class),
+                    implementation,
+                    MethodType.methodType(void.class, declaringClass));
+            Consumer<Object> consumer = (Consumer<Object>) callSite.getTarget().invoke();
+            return target -> {
+                consumer.accept(target);
+                return null;
+            };
+        }
+
+        CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                implementation,
+                MethodType.methodType(Object.class, declaringClass));
+        return (Function<Object, Object>) callSite.getTarget().invoke();
+    }
+
+    /**
+     * 调用方法
+     *
+     * @return 方法返回值，void方法返回null
+     * @throws Throwable 方法抛出的原始异常
+     */
+    public Object invoke() throws Throwable {
+        if (function != null) {
+            return function.apply(target);
+        }
+        return (Object) methodHandle.invokeExact();
+    }
+
+    /**
+     * 判断方法是否返回{@link CompletionStage}，即以异步方式完成
+     *
+     * @return true如果方法返回CompletionStage
+     */
+    public boolean isAsync() {
+        return CompletionStage.class.isAssignableFrom(method.getReturnType());
+    }
+
+    /**
+     * 获取绑定的方法
+     *
+     * @return 方法
+     */
+    public Method getMethod() {
+        return method;
+    }
+}
@@ -42,6 +42,24 @@ public @interface ModuleComponent {
      */
     String[] dependencies() default {};
 
+    /**
+     * 预估初始化耗时（毫秒），用于按关键路径调度模块初始化
+     * 存在实际记录的耗时时以记录值为准，0表示未声明
+     */
+    long expectedInitTime() default 0;
+
+    /**
+     * 模块初始化超时时间（毫秒），超时后中断初始化并将模块及依赖它的模块标记为失败
+     * 0表示不限制
+     */
+    long initTimeout() default 0;
+
+    /**
+     * 是否延迟初始化，延迟初始化的模块启动时只注册不初始化（被非延迟模块依赖时除外），
+     * 在第一个访问该模块的请求到达时才初始化该模块及其依赖模块，请求暂存到初始化结束
+     */
+    boolean lazy() default false;
+
     /**
      * 模块的基础包路径，用于包扫描
      * 如果为空，则默认使用该类所在的包路径
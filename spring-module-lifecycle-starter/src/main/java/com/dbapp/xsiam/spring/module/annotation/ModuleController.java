@@ -26,4 +26,10 @@ public @interface ModuleController {
      * 模块名称
      */
     String module() default "";
+
+    /**
+     * 所属模块的最大并发请求数，超出时以429拒绝，不大于0表示不限制；
+     * 同一模块的所有控制器共享限制，多个控制器声明不同的值时取最小值，配置属性中的值优先
+     */
+    int maxConcurrentRequests() default 0;
 } 
\ No newline at end of file
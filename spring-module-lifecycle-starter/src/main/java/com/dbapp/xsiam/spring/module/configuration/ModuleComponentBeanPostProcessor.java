@@ -1,6 +1,7 @@
 package com.dbapp.xsiam.spring.module.configuration;
 
 import com.dbapp.xsiam.spring.module.AnnotatedModule;
+import com.dbapp.xsiam.spring.module.ModuleMethodInvoker;
 import com.dbapp.xsiam.spring.module.annotation.ModuleComponent;
 import com.dbapp.xsiam.spring.module.manager.ModuleRegistry;
 import lombok.extern.slf4j.Slf4j;
@@ -49,8 +50,9 @@ public class ModuleComponentBeanPostProcessor implements BeanPostProcessor {
         String initMethodName = annotation.initMethod();
         String destroyMethodName = annotation.destroyMethod();
 
-        Method initMethod = findDeclaredMethod(targetClass, initMethodName);
-        Method destroyMethod = findDeclaredMethod(targetClass, destroyMethodName);
+        // 注册时一次性绑定初始化和销毁方法，之后的调用不再经过反射
+        ModuleMethodInvoker initInvoker = bindMethod(bean, targetClass, initMethodName);
+        ModuleMethodInvoker destroyInvoker = bindMethod(bean, targetClass, destroyMethodName);
 
         AnnotatedModule module = new AnnotatedModule(
                 moduleName,
@@ -59,9 +61,12 @@ public class ModuleComponentBeanPostProcessor implements BeanPostProcessor {
                 new HashSet<>(Arrays.asList(dependencies)),
                 basePackages,
                 bean,
-                initMethod,
-                destroyMethod
+                initInvoker,
+                destroyInvoker
         );
+        module.setExpectedInitTime(annotation.expectedInitTime());
+        module.setInitTimeout(annotation.initTimeout());
+        module.setLazy(annotation.lazy());
 
         moduleRegistry.registerModule(module);
         log.info("Registered module [{}] from bean of type [{}]", moduleName, targetClass.getName());
@@ -93,6 +98,11 @@ public class ModuleComponentBeanPostProcessor implements BeanPostProcessor {
         return basePackages;
     }
 
+    private ModuleMethodInvoker bindMethod(Object bean, Class<?> targetClass, String methodName) {
+        Method method = findDeclaredMethod(targetClass, methodName);
+        return method != null ? ModuleMethodInvoker.bind(bean, method) : null;
+    }
+
     private Method findDeclaredMethod(Class<?> targetClass, String methodName) {
         if (!StringUtils.hasText(methodName)) {
             return null;
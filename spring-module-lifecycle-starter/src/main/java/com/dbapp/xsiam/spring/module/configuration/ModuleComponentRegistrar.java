@@ -1,18 +1,68 @@
 package com.dbapp.xsiam.spring.module.configuration;
 
 import com.dbapp.xsiam.spring.module.annotation.ModuleComponent;
+import com.dbapp.xsiam.spring.module.index.ModuleIndex;
+import com.dbapp.xsiam.spring.module.index.ModuleIndexEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.ResourceLoaderAware;
+import org.springframework.context.annotation.AnnotationBeanNameGenerator;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.AnnotationScopeMetadataResolver;
 import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
 import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.context.annotation.ScannedGenericBeanDefinition;
+import org.springframework.context.annotation.ScopeMetadata;
+import org.springframework.context.annotation.ScopeMetadataResolver;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.lang.NonNull;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 模块组件注册器，用于扫描和注册带有@ModuleComponent注解的类
+ * <p>
+ * 包含基础包的每个类路径根都带有编译期生成的{@link ModuleIndex}时，直接按索引注册该包下的模块组件；
+ * 否则（如部分jar未经注解处理器编译）仍然通过类路径扫描注册该包
  */
-public class ModuleComponentRegistrar implements ImportBeanDefinitionRegistrar {
+@Slf4j
+public class ModuleComponentRegistrar implements ImportBeanDefinitionRegistrar, BeanClassLoaderAware,
+        EnvironmentAware, ResourceLoaderAware {
+
+    private ClassLoader beanClassLoader = ClassUtils.getDefaultClassLoader();
+    private Environment environment = new StandardEnvironment();
+    private ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+    @Override
+    public void setBeanClassLoader(@NonNull ClassLoader classLoader) {
+        this.beanClassLoader = classLoader;
+    }
+
+    @Override
+    public void setEnvironment(@NonNull Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void setResourceLoader(@NonNull ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
     @Override
     public void registerBeanDefinitions(@NonNull AnnotationMetadata importingClassMetadata,
                                         @NonNull BeanDefinitionRegistry registry) {
@@ -26,21 +76,97 @@ public class ModuleComponentRegistrar implements ImportBeanDefinitionRegistrar {
             return;
         }
 
-        // 创建自定义的扫描器
-        ClassPathBeanDefinitionScanner scanner = new ClassPathBeanDefinitionScanner(registry, false);
-        scanner.addIncludeFilter(new AnnotationTypeFilter(ModuleComponent.class));
-
-        // 添加扫描包
+        List<String> basePackages = new ArrayList<>();
         for (String basePackage : scanBasePackages) {
             if (StringUtils.hasText(basePackage)) {
-                scanner.scan(basePackage);
+                basePackages.add(basePackage.trim());
             }
         }
 
         for (String basePackage : scanBasePackageClasses) {
             if (StringUtils.hasText(basePackage)) {
-                scanner.scan(basePackage);
+                basePackages.add(basePackage.trim());
+            }
+        }
+
+        // 优先使用编译期索引，避免扫描类路径；两种方式使用同一个扫描器，过滤器、条件和Bean定义的处理一致
+        ModuleIndex moduleIndex = ModuleIndex.load(beanClassLoader);
+        ModuleComponentScanner scanner = new ModuleComponentScanner(registry, environment, resourceLoader);
+
+        for (String basePackage : basePackages) {
+            if (moduleIndex != null && moduleIndex.isComplete(basePackage, beanClassLoader)) {
+                List<ModuleIndexEntry> entries = moduleIndex.getEntries(basePackage, ModuleIndexEntry.Type.COMPONENT);
+                log.debug("Registering {} indexed module components in package [{}]", entries.size(), basePackage);
+                for (ModuleIndexEntry entry : entries) {
+                    scanner.registerIndexedComponent(entry);
+                }
+                continue;
+            }
+
+            scanner.scan(basePackage);
+        }
+    }
+
+    /**
+     * 模块组件扫描器，只包含带有@ModuleComponent注解的类；按索引注册的组件与扫描到的组件一样
+     * 经过过滤器和{@code @Conditional}、{@code @Profile}条件判断，并按相同的方式处理作用域、作用域代理和Bean名称
+     */
+    private static final class ModuleComponentScanner extends ClassPathBeanDefinitionScanner {
+
+        private final ScopeMetadataResolver scopeMetadataResolver = new AnnotationScopeMetadataResolver();
+
+        private ModuleComponentScanner(BeanDefinitionRegistry registry, Environment environment, ResourceLoader resourceLoader) {
+            super(registry, false, environment, resourceLoader);
+            addIncludeFilter(new AnnotationTypeFilter(ModuleComponent.class));
+        }
+
+        /**
+         * 按索引条目注册模块组件，不满足条件或已存在兼容的同名Bean定义（如已被组件扫描注册）时跳过
+         *
+         * @param entry 索引条目
+         */
+        private void registerIndexedComponent(ModuleIndexEntry entry) {
+            String className = entry.getClassName();
+            ScannedGenericBeanDefinition beanDefinition;
+            try {
+                MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(className);
+                if (!isCandidateComponent(metadataReader)) {
+                    log.debug("Indexed module component [{}] does not match its conditions, skipping", className);
+                    return;
+                }
+                beanDefinition = new ScannedGenericBeanDefinition(metadataReader);
+                beanDefinition.setSource(metadataReader.getResource());
+            } catch (IOException e) {
+                log.warn("Indexed module component [{}] cannot be read, skipping", className, e);
+                return;
+            }
+            if (!isCandidateComponent(beanDefinition)) {
+                return;
+            }
+
+            ScopeMetadata scopeMetadata = scopeMetadataResolver.resolveScopeMetadata(beanDefinition);
+            beanDefinition.setScope(scopeMetadata.getScopeName());
+            String beanName = StringUtils.hasText(entry.getBeanName())
+                    ? entry.getBeanName()
+                    : AnnotationBeanNameGenerator.INSTANCE.generateBeanName(beanDefinition, getRegistry());
+            postProcessBeanDefinition(beanDefinition, beanName);
+            AnnotationConfigUtils.processCommonDefinitionAnnotations(beanDefinition);
+            // 同一个类已被应用的组件扫描注册时直接跳过，两者的资源描述方式不同，不应视为冲突
+            if (getRegistry().containsBeanDefinition(beanName)
+                    && className.equals(getRegistry().getBeanDefinition(beanName).getBeanClassName())) {
+                return;
+            }
+            if (!checkCandidate(beanName, beanDefinition)) {
+                return;
+            }
+
+            BeanDefinitionHolder definitionHolder = new BeanDefinitionHolder(beanDefinition, beanName);
+            ScopedProxyMode scopedProxyMode = scopeMetadata.getScopedProxyMode();
+            if (scopedProxyMode != ScopedProxyMode.NO) {
+                definitionHolder = ScopedProxyUtils.createScopedProxy(definitionHolder, getRegistry(),
+                        scopedProxyMode == ScopedProxyMode.TARGET_CLASS);
             }
+            registerBeanDefinition(definitionHolder, getRegistry());
         }
     }
 }
@@ -6,76 +6,187 @@ import com.dbapp.xsiam.spring.module.manager.ModuleRegistry;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 模块健康指示器，提供模块健康状态信息
+ * <p>
+ * 模块状态或注册信息变化时只更新变化模块的明细和计数，并立即重建不可变的健康快照，以一次volatile写发布；
+ * 进度变化只更新明细，快照最多每{@link #PROGRESS_REFRESH_INTERVAL}毫秒重建一次，间隔内被跳过的进度标记快照过期，
+ * 由间隔过后的下一次探测补建，探测不会一直看到旧进度。
+ * 快照未过期时每次探测只读取volatile字段，不加锁，与模块数量无关
  */
 public class ModuleHealthIndicator implements HealthIndicator {
 
+    /**
+     * 进度变化引起快照重建的最小间隔（毫秒），初始化结束时的状态变更总会重建快照，最终进度不会丢失
+     */
+    private static final long PROGRESS_REFRESH_INTERVAL = 500L;
+
     private final ModuleRegistry moduleRegistry;
 
+    /**
+     * 各模块的明细，以下字段均由this保护
+     */
+    private final Map<String, ModuleEntry> entries = new HashMap<>();
+    private int readyCount;
+    private int failedCount;
+    private int initializingCount;
+    private int lazyCount;
+
+    /**
+     * 快照构建时间和明细是否有未反映到快照中的变化，在锁内写入，探测时无锁读取
+     */
+    private volatile long lastBuildTime;
+    private volatile boolean stale;
+
+    private volatile Health health;
+
     public ModuleHealthIndicator(ModuleRegistry moduleRegistry) {
         this.moduleRegistry = moduleRegistry;
+        moduleRegistry.addStateListener((module, previousState, currentState) -> refresh(module, true));
+        moduleRegistry.addProgressListener((module, progress) -> refresh(module, false));
+        moduleRegistry.addRegistrationListener(this::synchronizeModules);
+        synchronizeModules();
     }
 
     @Override
     public Health health() {
-        int readyCount = 0;
-        int failedCount = 0;
-        int initializingCount = 0;
-        int totalCount = moduleRegistry.getModuleCount();
+        if (stale && System.nanoTime() - lastBuildTime >= TimeUnit.MILLISECONDS.toNanos(PROGRESS_REFRESH_INTERVAL)) {
+            synchronized (this) {
+                if (stale) {
+                    rebuildHealth();
+                }
+            }
+        }
+        return health;
+    }
 
-        Map<String, Object> details = new HashMap<>();
+    /**
+     * 按模块当前状态更新其明细；模块已不在注册中心时移除其明细
+     *
+     * @param module 状态或进度变化的模块
+     * @param force  是否立即重建快照，否则距上次重建不足进度刷新间隔时只更新明细
+     */
+    private synchronized void refresh(Module module, boolean force) {
+        if (moduleRegistry.getModule(module.getName()) == module) {
+            putEntry(new ModuleEntry(module));
+        } else {
+            removeEntry(module.getName());
+        }
+        if (force || System.nanoTime() - lastBuildTime >= TimeUnit.MILLISECONDS.toNanos(PROGRESS_REFRESH_INTERVAL)) {
+            rebuildHealth();
+        } else {
+            stale = true;
+        }
+    }
 
+    /**
+     * 模块注册或注销后同步明细，只处理新增、替换和移除的模块
+     */
+    private synchronized void synchronizeModules() {
+        Set<String> removed = new HashSet<>(entries.keySet());
         for (Module module : moduleRegistry.getAllModules()) {
-            String moduleName = module.getName();
-            ModuleState state = module.getState();
-            double progress = module.getProgress();
+            removed.remove(module.getName());
+            ModuleEntry entry = entries.get(module.getName());
+            if (entry == null || entry.module != module) {
+                putEntry(new ModuleEntry(module));
+            }
+        }
+        for (String moduleName : removed) {
+            removeEntry(moduleName);
+        }
+        rebuildHealth();
+    }
 
-            Map<String, Object> moduleInfo = new HashMap<>();
-            moduleInfo.put("state", state.name());
-            moduleInfo.put("progress", progress);
-            moduleInfo.put("version", module.getVersion());
+    private void putEntry(ModuleEntry entry) {
+        removeEntry(entry.module.getName());
+        entries.put(entry.module.getName(), entry);
+        count(entry, 1);
+    }
 
-            details.put(moduleName, moduleInfo);
+    private void removeEntry(String moduleName) {
+        ModuleEntry entry = entries.remove(moduleName);
+        if (entry != null) {
+            count(entry, -1);
+        }
+    }
 
-            if (state == ModuleState.READY) {
-                readyCount++;
-            } else if (state == ModuleState.FAILED) {
-                failedCount++;
-            } else if (state == ModuleState.INITIALIZING) {
-                initializingCount++;
-            }
+    private void count(ModuleEntry entry, int delta) {
+        if (entry.state == ModuleState.READY) {
+            readyCount += delta;
+        } else if (entry.state == ModuleState.FAILED) {
+            failedCount += delta;
+        } else if (entry.state == ModuleState.INITIALIZING) {
+            initializingCount += delta;
+        } else if (entry.state == ModuleState.REGISTERED && entry.lazy) {
+            lazyCount += delta;
         }
+    }
 
+    /**
+     * 由明细和计数构建不可变的健康快照并发布，调用方需持有this的锁
+     */
+    private void rebuildHealth() {
+        int totalCount = entries.size();
+        Map<String, Object> details = new LinkedHashMap<>();
+        for (ModuleEntry entry : entries.values()) {
+            details.put(entry.module.getName(), entry.details);
+        }
         details.put("summary", Map.of(
                 "total", totalCount,
                 "ready", readyCount,
                 "failed", failedCount,
-                "initializing", initializingCount
+                "initializing", initializingCount,
+                "lazy", lazyCount
         ));
 
-        // 如果所有模块都就绪，则状态为UP
+        // 如果所有模块都就绪（尚未被请求的延迟模块视为就绪），则状态为UP
         // 如果有失败的模块，则状态为DOWN
         // 如果有正在初始化的模块，则状态为OUT_OF_SERVICE
+        Health.Builder builder;
         if (failedCount > 0) {
-            return Health.down()
-                    .withDetails(details)
-                    .build();
+            builder = Health.down();
         } else if (initializingCount > 0) {
-            return Health.outOfService()
-                    .withDetails(details)
-                    .build();
-        } else if (readyCount == totalCount && totalCount > 0) {
-            return Health.up()
-                    .withDetails(details)
-                    .build();
+            builder = Health.outOfService();
+        } else if (readyCount + lazyCount == totalCount && totalCount > 0) {
+            builder = Health.up();
         } else {
-            return Health.unknown()
-                    .withDetails(details)
-                    .build();
+            builder = Health.unknown();
+        }
+
+        health = builder.withDetails(details).build();
+        lastBuildTime = System.nanoTime();
+        stale = false;
+    }
+
+    /**
+     * 单个模块在某一时刻的健康明细，不可变
+     */
+    private static final class ModuleEntry {
+
+        private final Module module;
+        private final ModuleState state;
+        private final boolean lazy;
+        private final Map<String, Object> details;
+
+        private ModuleEntry(Module module) {
+            this.module = module;
+            this.state = module.getState();
+            this.lazy = module.isLazy();
+
+            Map<String, Object> moduleInfo = new LinkedHashMap<>();
+            moduleInfo.put("state", state.name());
+            moduleInfo.put("progress", module.getProgress());
+            moduleInfo.put("version", module.getVersion());
+            moduleInfo.put("lazy", lazy);
+            this.details = Collections.unmodifiableMap(moduleInfo);
         }
     }
-} 
\ No newline at end of file
+}
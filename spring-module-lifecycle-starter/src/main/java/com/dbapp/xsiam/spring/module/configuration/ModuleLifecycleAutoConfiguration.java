@@ -1,15 +1,30 @@
 package com.dbapp.xsiam.spring.module.configuration;
 
+import com.dbapp.xsiam.spring.module.enums.ModuleExecutorMode;
+import com.dbapp.xsiam.spring.module.event.ModuleEventDispatcher;
+import com.dbapp.xsiam.spring.module.event.SynchronousModuleEventListener;
+import com.dbapp.xsiam.spring.module.jfr.ModuleFlightRecorder;
+import com.dbapp.xsiam.spring.module.manager.ModuleEventHistory;
+import com.dbapp.xsiam.spring.module.manager.ModuleInitDurationStore;
 import com.dbapp.xsiam.spring.module.manager.ModuleLifecycleManager;
+import com.dbapp.xsiam.spring.module.manager.ModuleReadinessEstimator;
 import com.dbapp.xsiam.spring.module.manager.ModuleRegistry;
+import com.dbapp.xsiam.spring.module.metrics.ModuleMetrics;
 import com.dbapp.xsiam.spring.module.web.ModuleEndpoint;
+import com.dbapp.xsiam.spring.module.web.ModuleEventStream;
+import com.dbapp.xsiam.spring.module.web.ModuleEventStreamController;
+import com.dbapp.xsiam.spring.module.web.ModuleGateListener;
 import com.dbapp.xsiam.spring.module.web.ModuleInterceptor;
 import com.dbapp.xsiam.spring.module.web.ModuleRequestMappingHandlerMapping;
+import com.dbapp.xsiam.spring.module.web.ModuleRequestParker;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationEventPublisher;
@@ -18,9 +33,11 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.lang.NonNull;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -47,19 +64,74 @@ public class ModuleLifecycleAutoConfiguration {
     }
 
     /**
-     * 创建模块生命周期管理器
+     * 创建模块初始化耗时记录
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ModuleInitDurationStore moduleInitDurationStore(ModuleLifecycleProperties properties) {
+        String initDurationFile = properties.getInitDurationFile();
+        return new ModuleInitDurationStore(StringUtils.hasText(initDurationFile) ? Paths.get(initDurationFile) : null);
+    }
+
+    /**
+     * 创建模块就绪时间估算器
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ModuleReadinessEstimator moduleReadinessEstimator(ModuleRegistry moduleRegistry,
+                                                             ModuleInitDurationStore moduleInitDurationStore) {
+        return new ModuleReadinessEstimator(moduleRegistry, moduleInitDurationStore);
+    }
+
+    /**
+     * 创建模块事件历史
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ModuleEventHistory moduleEventHistory(ModuleRegistry moduleRegistry, ModuleLifecycleProperties properties) {
+        return new ModuleEventHistory(moduleRegistry, properties.getEventHistorySize());
+    }
+
+    /**
+     * 创建模块事件分派器，模块进度变化经分派器合并后以事件发布
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ModuleEventDispatcher moduleEventDispatcher(ModuleRegistry moduleRegistry,
+                                                       ModuleLifecycleProperties properties,
+                                                       ApplicationEventPublisher eventPublisher,
+                                                       ObjectProvider<SynchronousModuleEventListener> synchronousListeners) {
+        ModuleEventDispatcher moduleEventDispatcher = new ModuleEventDispatcher(eventPublisher, properties.getEventBufferSize());
+        moduleEventDispatcher.setAsync(properties.isAsyncEventsEnabled());
+        synchronousListeners.orderedStream().forEach(moduleEventDispatcher::addSynchronousListener);
+        moduleRegistry.addProgressListener(moduleEventDispatcher::publishProgress);
+        return moduleEventDispatcher;
+    }
+
+    /**
+     * 创建模块生命周期管理器，模块事件通过模块事件分派器发布
      */
     @Bean
     @ConditionalOnMissingBean
     public ModuleLifecycleManager moduleLifecycleManager(ModuleRegistry moduleRegistry,
                                                          ModuleLifecycleProperties properties,
-                                                         ApplicationEventPublisher eventPublisher) {
+                                                         ModuleEventDispatcher moduleEventDispatcher,
+                                                         ModuleInitDurationStore moduleInitDurationStore) {
+
+        int concurrency = properties.getExecutorMode() == ModuleExecutorMode.VIRTUAL
+                ? properties.getMaxConcurrency()
+                : properties.getThreadPoolSize();
 
-        return new ModuleLifecycleManager(
+        ModuleLifecycleManager moduleLifecycleManager = new ModuleLifecycleManager(
                 moduleRegistry,
-                properties.getThreadPoolSize(),
+                properties.getExecutorMode(),
+                concurrency,
                 properties.getInitTimeout(),
-                eventPublisher);
+                moduleEventDispatcher,
+                moduleInitDurationStore);
+        moduleLifecycleManager.setShutdownTimeout(properties.getShutdownTimeout());
+        moduleLifecycleManager.setDestroyTimeout(properties.getDestroyTimeout());
+        return moduleLifecycleManager;
     }
 
     /**
@@ -74,8 +146,53 @@ public class ModuleLifecycleAutoConfiguration {
          */
         @Bean
         @ConditionalOnMissingBean
-        public ModuleInterceptor moduleInterceptor(ModuleRegistry moduleRegistry) {
-            return new ModuleInterceptor(moduleRegistry);
+        public ModuleInterceptor moduleInterceptor(ModuleRegistry moduleRegistry,
+                                                   ModuleReadinessEstimator moduleReadinessEstimator,
+                                                   ModuleLifecycleManager moduleLifecycleManager,
+                                                   ModuleLifecycleProperties properties,
+                                                   ObjectProvider<ModuleRequestParker> moduleRequestParker,
+                                                   ObjectProvider<ModuleGateListener> moduleGateListeners) {
+            ModuleInterceptor moduleInterceptor = new ModuleInterceptor(moduleRegistry, moduleReadinessEstimator);
+            moduleInterceptor.setModuleRequestParker(moduleRequestParker.getIfAvailable());
+            moduleInterceptor.setRequestParkingEnabled(properties.isRequestParkingEnabled());
+            moduleInterceptor.setModuleLifecycleManager(moduleLifecycleManager);
+            moduleInterceptor.setMaxConcurrentRequests(properties.getMaxConcurrentRequests());
+            moduleGateListeners.orderedStream().forEach(moduleInterceptor::addModuleGateListener);
+            return moduleInterceptor;
+        }
+
+        /**
+         * 创建模块请求暂存器，未开启请求暂存时仅用于暂存延迟模块的请求
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public ModuleRequestParker moduleRequestParker(ModuleRegistry moduleRegistry,
+                                                       ModuleLifecycleProperties properties) {
+            return new ModuleRequestParker(moduleRegistry, properties.getMaxParkedRequests(), properties.getMaxParkTime());
+        }
+
+        /**
+         * 创建模块事件流，需显式开启module.lifecycle.event-stream-enabled
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "module.lifecycle", name = "event-stream-enabled", havingValue = "true")
+        public ModuleEventStream moduleEventStream(ModuleRegistry moduleRegistry,
+                                                   ModuleLifecycleProperties properties) {
+            return new ModuleEventStream(moduleRegistry,
+                    properties.getEventStreamBufferSize(),
+                    properties.getEventStreamMaxSubscribers(),
+                    properties.getEventStreamTimeout());
+        }
+
+        /**
+         * 创建模块事件流控制器
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "module.lifecycle", name = "event-stream-enabled", havingValue = "true")
+        public ModuleEventStreamController moduleEventStreamController(ModuleEventStream moduleEventStream) {
+            return new ModuleEventStreamController(moduleEventStream);
         }
 
         /**
@@ -157,8 +274,52 @@ public class ModuleLifecycleAutoConfiguration {
          */
         @Bean
         @ConditionalOnMissingBean
-        public ModuleEndpoint moduleEndpoint(ModuleRegistry moduleRegistry, ModuleLifecycleManager moduleLifecycleManager) {
-            return new ModuleEndpoint(moduleRegistry, moduleLifecycleManager);
+        public ModuleEndpoint moduleEndpoint(ModuleRegistry moduleRegistry,
+                                             ModuleLifecycleManager moduleLifecycleManager,
+                                             ObjectProvider<ModuleEventHistory> moduleEventHistory) {
+            ModuleEndpoint moduleEndpoint = new ModuleEndpoint(moduleRegistry, moduleLifecycleManager);
+            moduleEndpoint.setEventHistory(moduleEventHistory.getIfAvailable());
+            return moduleEndpoint;
+        }
+    }
+
+    /**
+     * Micrometer指标相关配置
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    public static class MetricsConfiguration {
+
+        /**
+         * 创建模块指标，同时接收生命周期事件和拦截器处理结果
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public ModuleMetrics moduleMetrics(ModuleRegistry moduleRegistry, ModuleLifecycleManager moduleLifecycleManager) {
+            ModuleMetrics moduleMetrics = new ModuleMetrics(moduleRegistry);
+            moduleLifecycleManager.addLifecycleListener(moduleMetrics);
+            return moduleMetrics;
+        }
+    }
+
+    /**
+     * JFR事件相关配置
+     */
+    @Configuration
+    @ConditionalOnClass(name = "jdk.jfr.FlightRecorder")
+    @ConditionalOnProperty(prefix = "module.lifecycle", name = "jfr-enabled", matchIfMissing = true)
+    public static class FlightRecorderConfiguration {
+
+        /**
+         * 创建模块JFR事件记录器，同时接收生命周期事件和拦截器处理结果
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public ModuleFlightRecorder moduleFlightRecorder(ModuleRegistry moduleRegistry,
+                                                         ModuleLifecycleManager moduleLifecycleManager) {
+            ModuleFlightRecorder moduleFlightRecorder = new ModuleFlightRecorder(moduleRegistry);
+            moduleLifecycleManager.addLifecycleListener(moduleFlightRecorder);
+            return moduleFlightRecorder;
         }
     }
 
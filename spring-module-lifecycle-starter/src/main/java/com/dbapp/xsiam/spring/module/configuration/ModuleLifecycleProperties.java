@@ -1,8 +1,12 @@
 package com.dbapp.xsiam.spring.module.configuration;
 
+import com.dbapp.xsiam.spring.module.enums.ModuleExecutorMode;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * 模块生命周期配置属性
  */
@@ -20,18 +24,113 @@ public class ModuleLifecycleProperties {
      */
     private int threadPoolSize = 5;
 
+    /**
+     * 模块初始化和销毁任务的执行模式
+     */
+    private ModuleExecutorMode executorMode = ModuleExecutorMode.FIXED;
+
+    /**
+     * VIRTUAL模式下同时初始化或销毁的最大模块数
+     * <p>
+     * 这是VIRTUAL模式下唯一的并发约束；JDK 21以下不支持虚拟线程时退化为每个任务一个不复用的平台线程（启动时输出WARN日志），
+     * 同时存活的平台线程数也只受此值限制，在JDK 17上使用VIRTUAL模式时应按平台线程的开销调低此值，或改用FIXED模式
+     */
+    private int maxConcurrency = 256;
+
     /**
      * 初始化超时时间（毫秒）
      */
     private long initTimeout = 60000;
 
+    /**
+     * 关闭时销毁所有模块并关闭线程池的整体时限（毫秒），到期后中断仍在运行的任务
+     */
+    private long shutdownTimeout = 30000;
+
+    /**
+     * 关闭时单个模块销毁的时限（毫秒），超时后中断该模块的销毁线程并继续销毁其依赖模块
+     */
+    private long destroyTimeout = 10000;
+
+    /**
+     * 模块初始化耗时记录文件，用于下次启动时按关键路径调度，为空时仅在内存中记录
+     */
+    private String initDurationFile = "";
+
     /**
      * 是否自动初始化模块
      */
     private boolean autoInitialize = true;
 
+    /**
+     * 是否由专用线程异步分派模块事件，关闭后事件在模块初始化线程上同步发布
+     */
+    private boolean asyncEventsEnabled = true;
+
+    /**
+     * 模块事件分派缓冲区容量，缓冲区满时丢弃新事件（同一模块的进度事件合并，不占用额外容量），发布事件的线程不会阻塞
+     */
+    private int eventBufferSize = 1024;
+
+    /**
+     * 模块事件历史保留的最大状态变更记录数
+     */
+    private int eventHistorySize = 1024;
+
     /**
      * 是否启用模块拦截
      */
     private boolean enableInterceptor = true;
+
+    /**
+     * 各模块的最大并发请求数，键为模块名称，超出时以429拒绝，优先于@ModuleController中声明的值
+     */
+    private Map<String, Integer> maxConcurrentRequests = new LinkedHashMap<>();
+
+    /**
+     * 是否发布模块初始化、销毁和请求拒绝的JFR事件，事件仅在JFR记录开启时才会产生
+     */
+    private boolean jfrEnabled = true;
+
+    /**
+     * 是否提供模块事件流（Server-Sent Events），默认关闭。
+     * 事件流由普通控制器提供，不受Actuator端点暴露和安全配置的约束，会公开模块名称、版本和失败原因，
+     * 开启时应自行限制该路径的访问
+     */
+    private boolean eventStreamEnabled = false;
+
+    /**
+     * 模块事件流路径
+     */
+    private String eventStreamPath = "/modules/events";
+
+    /**
+     * 每个事件流订阅者最多积压的事件数，超出后丢弃积压事件并重新发送快照
+     */
+    private int eventStreamBufferSize = 256;
+
+    /**
+     * 事件流最大订阅者数量，超出后新的订阅请求返回503
+     */
+    private int eventStreamMaxSubscribers = 256;
+
+    /**
+     * 事件流连接超时时间（毫秒），超时后客户端需要重新连接，0表示不超时
+     */
+    private long eventStreamTimeout = 1800000;
+
+    /**
+     * 模块未就绪时是否异步暂存请求，而不是立即返回503；延迟初始化模块的请求总是暂存
+     */
+    private boolean requestParkingEnabled = false;
+
+    /**
+     * 每个模块最多暂存的请求数，超出后直接返回503
+     */
+    private int maxParkedRequests = 100;
+
+    /**
+     * 请求最长暂存时间（毫秒），超时后返回503
+     */
+    private long maxParkTime = 10000;
 } 
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.dbapp.xsiam.spring.module.enums;
+
+/**
+ * 模块初始化和销毁任务的执行模式
+ */
+public enum ModuleExecutorMode {
+    /**
+     * 固定大小线程池，并发数等于线程池大小
+     */
+    FIXED,
+
+    /**
+     * 每个模块任务运行在独立的虚拟线程上，并发数由并发上限控制
+     * <p>
+     * 运行时不支持虚拟线程（JDK 21以下）时退化为每个任务一个平台线程并在启动时告警，平台线程数同样只受并发上限约束
+     */
+    VIRTUAL
+}
@@ -0,0 +1,26 @@
+package com.dbapp.xsiam.spring.module.enums;
+
+/**
+ * 模块拦截器对请求的处理结果
+ */
+public enum ModuleGateOutcome {
+    /**
+     * 模块已就绪，请求放行
+     */
+    PASSED,
+
+    /**
+     * 模块未就绪，请求被拒绝
+     */
+    REJECTED,
+
+    /**
+     * 模块未就绪，请求被暂存等待模块就绪
+     */
+    PARKED,
+
+    /**
+     * 模块已就绪，但并发请求数已达上限，请求被拒绝
+     */
+    THROTTLED
+}
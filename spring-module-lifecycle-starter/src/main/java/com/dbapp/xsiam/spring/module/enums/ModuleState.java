@@ -46,4 +46,26 @@ public enum ModuleState {
     public boolean isReady() {
         return this == READY;
     }
+
+    /**
+     * 判断能否从当前状态变更为目标状态
+     * <p>
+     * 合法的状态变更：UNREGISTERED -> REGISTERED -> INITIALIZING -> READY/FAILED，
+     * 依赖失败时 REGISTERED -> FAILED，重新注册时 READY/FAILED -> REGISTERED，任意状态均可注销为 UNREGISTERED
+     *
+     * @param target 目标状态
+     * @return true如果状态变更合法
+     */
+    public boolean canTransitionTo(ModuleState target) {
+        if (target == UNREGISTERED) {
+            return this != UNREGISTERED;
+        }
+
+        return switch (this) {
+            case UNREGISTERED -> target == REGISTERED;
+            case REGISTERED -> target == INITIALIZING || target == FAILED;
+            case INITIALIZING -> target == READY || target == FAILED;
+            case READY, FAILED -> target == REGISTERED;
+        };
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,287 @@
+package com.dbapp.xsiam.spring.module.event;
+
+import com.dbapp.xsiam.spring.module.Module;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 模块事件分派器，将模块生命周期事件放入有界环形缓冲区，由专用的分派线程批量转发给应用上下文，
+ * 监听器的耗时不再影响模块初始化线程：
+ * <ul>
+ *     <li>所有事件经同一个队列由同一个线程分派，同一模块的事件按发布顺序送达</li>
+ *     <li>同一模块尚未分派的进度变化合并为一个事件，分派时取最新的进度</li>
+ *     <li>{@link SynchronousModuleEventListener}在发布线程上同步回调</li>
+ *     <li>发布线程从不阻塞：缓冲区满时丢弃事件并计数，见{@link #getDroppedCount()}</li>
+ * </ul>
+ * 关闭异步分派或分派器关闭后，事件在发布线程上直接转发
+ */
+@Slf4j
+public class ModuleEventDispatcher implements ApplicationEventPublisher {
+
+    /**
+     * 分派线程每批最多转发的事件数
+     */
+    private static final int MAX_BATCH_SIZE = 64;
+
+    /**
+     * 分派线程空闲时检查关闭标记的间隔（毫秒）
+     */
+    private static final long POLL_INTERVAL = 100L;
+
+    /**
+     * 关闭时等待积压事件分派完成的时限（毫秒）
+     */
+    private static final long CLOSE_TIMEOUT = 5000L;
+
+    private final ApplicationEventPublisher delegate;
+    private final BlockingQueue<Object> queue;
+    private final Map<String, ModuleProgressEvent> pendingProgress = new ConcurrentHashMap<>();
+    private final List<SynchronousModuleEventListener> synchronousListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean async = true;
+    private volatile boolean closed;
+    private volatile Thread dispatcherThread;
+
+    /**
+     * 构造函数
+     *
+     * @param delegate   实际转发事件的发布器，通常为应用上下文
+     * @param bufferSize 缓冲区容量，不含已合并的进度事件
+     */
+    public ModuleEventDispatcher(ApplicationEventPublisher delegate, int bufferSize) {
+        Assert.notNull(delegate, "ApplicationEventPublisher must not be null");
+        Assert.isTrue(bufferSize > 0, "Buffer size must be positive");
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    /**
+     * 设置是否异步分派事件
+     *
+     * @param async false时事件在发布线程上直接转发
+     */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    /**
+     * 添加同步模块事件监听器
+     *
+     * @param listener 监听器
+     */
+    public void addSynchronousListener(SynchronousModuleEventListener listener) {
+        Assert.notNull(listener, "Listener must not be null");
+        synchronousListeners.add(listener);
+    }
+
+    /**
+     * 发布事件，同步监听器回调后放入缓冲区
+     *
+     * @param event 事件
+     */
+    @Override
+    public void publishEvent(Object event) {
+        Assert.notNull(event, "Event must not be null");
+        if (event instanceof ApplicationEvent applicationEvent) {
+            notifySynchronousListeners(applicationEvent);
+        }
+        enqueue(event);
+    }
+
+    /**
+     * 发布模块进度事件，同一模块尚未分派的进度事件只保留最新的一个
+     *
+     * @param module   进度变化的模块
+     * @param progress 变化后的进度
+     */
+    public void publishProgress(Module module, double progress) {
+        ModuleProgressEvent event = new ModuleProgressEvent(module, progress);
+        notifySynchronousListeners(event);
+        if (!isAsyncDispatch()) {
+            deliver(event);
+            return;
+        }
+        // 队列中已有该模块的进度标记时只替换最新值，标记的位置保证进度不会晚于其后的状态事件送达
+        if (pendingProgress.put(module.getName(), event) == null && !enqueue(new ProgressMarker(module.getName()))) {
+            // 标记未能入队时移除待分派的进度，之后的进度变化重新放入标记
+            pendingProgress.remove(module.getName(), event);
+        }
+    }
+
+    /**
+     * 获取缓冲区中等待分派的事件数
+     *
+     * @return 事件数
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * 获取因缓冲区满而丢弃的事件数，持续增长说明监听器处理过慢或缓冲区过小
+     *
+     * @return 丢弃的事件数
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 关闭分派器，等待积压事件分派完成，此后发布的事件在发布线程上直接转发
+     */
+    @PreDestroy
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            closed = true;
+            thread = dispatcherThread;
+        }
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(CLOSE_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Module event dispatcher did not finish within {} ms, discarding {} pending events",
+                    CLOSE_TIMEOUT, queue.size());
+            thread.interrupt();
+            return;
+        }
+
+        // 关闭标记生效前刚放入缓冲区的事件由关闭线程转发
+        Object item;
+        while ((item = queue.poll()) != null) {
+            deliver(item);
+        }
+    }
+
+    private void notifySynchronousListeners(ApplicationEvent event) {
+        for (SynchronousModuleEventListener listener : synchronousListeners) {
+            try {
+                listener.onModuleEvent(event);
+            } catch (Exception e) {
+                log.error("Synchronous module event listener failed for {}", event, e);
+            }
+        }
+    }
+
+    /**
+     * 判断事件是否需要异步分派，分派线程自身发布的事件直接转发，避免缓冲区满时自身等待
+     *
+     * @return true如果需要放入缓冲区
+     */
+    private boolean isAsyncDispatch() {
+        return async && !closed && Thread.currentThread() != dispatcherThread;
+    }
+
+    /**
+     * 放入缓冲区，不等待空位；发布线程可能持有模块生命周期的锁，等待分派线程会与在监听器中调用生命周期方法的分派线程互相等待
+     *
+     * @param item 事件或进度标记
+     * @return false如果缓冲区已满，事件被丢弃
+     */
+    private boolean enqueue(Object item) {
+        if (!isAsyncDispatch() || !ensureStarted()) {
+            deliver(item);
+            return true;
+        }
+        if (queue.offer(item)) {
+            return true;
+        }
+
+        long dropped = droppedCount.incrementAndGet();
+        // 只在丢弃数为2的幂时告警，避免持续积压时日志刷屏
+        if ((dropped & (dropped - 1)) == 0) {
+            log.warn("Module event buffer is full, module event listeners are falling behind, {} events dropped so far", dropped);
+        }
+        return false;
+    }
+
+    /**
+     * 首次异步发布时启动分派线程
+     *
+     * @return false如果分派器已关闭
+     */
+    private boolean ensureStarted() {
+        if (dispatcherThread != null) {
+            return true;
+        }
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            if (dispatcherThread == null) {
+                Thread thread = new Thread(this::dispatchLoop, "module-event-dispatcher");
+                thread.setDaemon(true);
+                dispatcherThread = thread;
+                thread.start();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 分派线程主循环，每次取出当前积压的一批事件依次转发，关闭后分派完积压事件再退出
+     */
+    private void dispatchLoop() {
+        List<Object> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            Object first;
+            try {
+                first = queue.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+
+            batch.add(first);
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            for (Object item : batch) {
+                deliver(item);
+            }
+            batch.clear();
+        }
+    }
+
+    private void deliver(Object item) {
+        Object event = item;
+        if (item instanceof ProgressMarker marker) {
+            event = pendingProgress.remove(marker.moduleName());
+            if (event == null) {
+                return;
+            }
+        }
+        try {
+            delegate.publishEvent(event);
+        } catch (Exception e) {
+            log.error("Module event listener failed for {}", event, e);
+        }
+    }
+
+    /**
+     * 缓冲区中代表某个模块待分派进度的标记
+     */
+    private record ProgressMarker(String moduleName) {
+    }
+}
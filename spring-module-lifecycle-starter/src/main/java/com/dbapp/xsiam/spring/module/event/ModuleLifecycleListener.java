@@ -0,0 +1,62 @@
+package com.dbapp.xsiam.spring.module.event;
+
+import com.dbapp.xsiam.spring.module.Module;
+
+/**
+ * 模块生命周期监听器，由{@link com.dbapp.xsiam.spring.module.manager.ModuleLifecycleManager}在初始化和销毁各阶段同步回调，
+ * 回调在初始化线程或依赖完成的线程上执行，实现应尽量轻量
+ */
+public interface ModuleLifecycleListener {
+
+    /**
+     * 模块加入初始化计划，开始等待依赖模块
+     *
+     * @param module 模块
+     */
+    default void onInitQueued(Module module) {
+    }
+
+    /**
+     * 模块的依赖均已就绪，进入调度队列等待初始化线程
+     *
+     * @param module 模块
+     */
+    default void onDependenciesSatisfied(Module module) {
+    }
+
+    /**
+     * 模块开始在初始化线程上初始化
+     *
+     * @param module 模块
+     */
+    default void onInitStarted(Module module) {
+    }
+
+    /**
+     * 模块初始化结束，包括成功、失败、超时以及因依赖失败而未执行初始化
+     *
+     * @param module        模块
+     * @param durationNanos 初始化耗时（纳秒），未执行初始化时为0
+     * @param failure       失败原因，成功时为null
+     */
+    default void onInitCompleted(Module module, long durationNanos, Throwable failure) {
+    }
+
+    /**
+     * 模块开始在销毁线程上销毁
+     *
+     * @param module 模块
+     */
+    default void onDestroyStarted(Module module) {
+    }
+
+    /**
+     * 模块销毁结束
+     *
+     * @param module        模块
+     * @param durationNanos 销毁耗时（纳秒）
+     * @param failure       销毁抛出的异常，成功时为null
+     */
+    default void onDestroyCompleted(Module module, long durationNanos, Throwable failure) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.dbapp.xsiam.spring.module.event;
+
+import com.dbapp.xsiam.spring.module.Module;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 模块进度事件，异步分派时连续的进度变化会合并，监听器只收到最新的进度
+ */
+public class ModuleProgressEvent extends ApplicationEvent {
+
+    private final double progress;
+
+    /**
+     * 构造函数
+     *
+     * @param module   进度变化的模块
+     * @param progress 变化后的进度，范围0.0-1.0
+     */
+    public ModuleProgressEvent(Module module, double progress) {
+        super(module);
+        this.progress = progress;
+    }
+
+    /**
+     * 获取进度变化的模块
+     *
+     * @return 模块对象
+     */
+    public Module getModule() {
+        return (Module) getSource();
+    }
+
+    /**
+     * 获取变化后的进度
+     *
+     * @return 进度，范围0.0-1.0
+     */
+    public double getProgress() {
+        return progress;
+    }
+
+    @Override
+    public String toString() {
+        return "ModuleProgressEvent{module=" + getModule().getName() + ", progress=" + progress + '}';
+    }
+}
@@ -0,0 +1,18 @@
+package com.dbapp.xsiam.spring.module.event;
+
+import com.dbapp.xsiam.spring.module.Module;
+
+/**
+ * 模块进度监听器，在模块初始化进度变化后由更新进度的线程同步回调
+ */
+@FunctionalInterface
+public interface ModuleProgressListener {
+
+    /**
+     * 模块进度变化回调
+     *
+     * @param module   进度变化的模块
+     * @param progress 变化后的进度，范围0.0-1.0
+     */
+    void onProgressChange(Module module, double progress);
+}
@@ -0,0 +1,20 @@
+package com.dbapp.xsiam.spring.module.event;
+
+import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.enums.ModuleState;
+
+/**
+ * 模块状态监听器，在模块状态变更成功后由执行变更的线程同步回调
+ */
+@FunctionalInterface
+public interface ModuleStateListener {
+
+    /**
+     * 模块状态变更回调
+     *
+     * @param module        发生状态变更的模块
+     * @param previousState 变更前的状态
+     * @param currentState  变更后的状态
+     */
+    void onStateChange(Module module, ModuleState previousState, ModuleState currentState);
+}
@@ -0,0 +1,19 @@
+package com.dbapp.xsiam.spring.module.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 同步模块事件监听器，由发布事件的线程在事件进入分派队列前回调，回调返回前模块初始化不会继续
+ * <p>
+ * 仅用于必须与模块状态变更同步处理的场景，回调应尽快返回；进度事件不合并，每次进度变化都会回调
+ */
+@FunctionalInterface
+public interface SynchronousModuleEventListener {
+
+    /**
+     * 模块事件回调
+     *
+     * @param event 模块状态变更、就绪、失败或进度事件
+     */
+    void onModuleEvent(ApplicationEvent event);
+}
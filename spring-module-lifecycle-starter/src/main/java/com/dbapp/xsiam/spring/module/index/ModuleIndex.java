@@ -0,0 +1,178 @@
+package com.dbapp.xsiam.spring.module.index;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 编译期生成的模块索引，由{@link ModuleIndexProcessor}写入{@link #INDEX_LOCATION}，
+ * 启动时读取索引即可得到所有模块组件，无需扫描类路径
+ * <p>
+ * 索引为Properties格式，类的全限定名对应条目类型，类名加{@code #属性名}对应注解属性。
+ * 每个类路径根目录或jar只描述自身的类，未经注解处理器编译的根目录没有索引，
+ * 因此只有包含某个包的所有根目录都带有索引时，该包的索引才是完整的，见{@link #isComplete(String, ClassLoader)}
+ */
+@Slf4j
+public final class ModuleIndex {
+
+    /**
+     * 索引文件位置，类路径上的每个jar各自包含一份
+     */
+    public static final String INDEX_LOCATION = "META-INF/spring-module.index";
+
+    static final String ATTRIBUTE_SEPARATOR = "#";
+    static final String BEAN_NAME = "beanName";
+
+    private final List<ModuleIndexEntry> entries;
+
+    /**
+     * 带有索引的类路径根的URL
+     */
+    private final Set<String> indexedRoots;
+
+    private ModuleIndex(List<ModuleIndexEntry> entries, Set<String> indexedRoots) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.indexedRoots = Collections.unmodifiableSet(indexedRoots);
+    }
+
+    /**
+     * 从类路径加载所有模块索引
+     *
+     * @param classLoader 类加载器
+     * @return 合并后的模块索引，类路径上没有索引文件时返回null
+     */
+    public static ModuleIndex load(ClassLoader classLoader) {
+        try {
+            Enumeration<URL> urls = classLoader != null
+                    ? classLoader.getResources(INDEX_LOCATION)
+                    : ClassLoader.getSystemResources(INDEX_LOCATION);
+            if (!urls.hasMoreElements()) {
+                return null;
+            }
+
+            List<ModuleIndexEntry> entries = new ArrayList<>();
+            Set<String> indexedRoots = new HashSet<>();
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                indexedRoots.add(getRoot(url, INDEX_LOCATION));
+                Properties properties = new Properties();
+                try (InputStream in = url.openStream()) {
+                    properties.load(in);
+                }
+                entries.addAll(parse(properties));
+            }
+            log.debug("Loaded {} module index entries", entries.size());
+            return new ModuleIndex(entries, indexedRoots);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Unable to load module index from location [" + INDEX_LOCATION + "]", e);
+        }
+    }
+
+    /**
+     * 获取所有索引条目
+     *
+     * @return 索引条目的不可修改列表
+     */
+    public List<ModuleIndexEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * 获取位于指定包或其子包下的索引条目
+     *
+     * @param basePackage 包路径
+     * @param type        条目类型
+     * @return 索引条目列表
+     */
+    public List<ModuleIndexEntry> getEntries(String basePackage, ModuleIndexEntry.Type type) {
+        return entries.stream()
+                .filter(entry -> entry.getType() == type && entry.isInPackage(basePackage))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 判断索引是否完整覆盖指定包：类路径上包含该包的每个根目录或jar都带有索引时返回true。
+     * 否则其中可能有未经注解处理器编译的模块组件，调用方应扫描类路径；
+     * 无法解析到包含该包的根（如jar中没有目录条目）时同样视为不完整
+     *
+     * @param basePackage 包路径
+     * @param classLoader 类加载器
+     * @return true如果可以只按索引注册该包下的模块组件
+     */
+    public boolean isComplete(String basePackage, ClassLoader classLoader) {
+        String packagePath = basePackage.replace('.', '/');
+        try {
+            Enumeration<URL> urls = classLoader != null
+                    ? classLoader.getResources(packagePath)
+                    : ClassLoader.getSystemResources(packagePath);
+            if (!urls.hasMoreElements()) {
+                log.debug("No classpath root resolves package [{}], module index cannot be trusted", basePackage);
+                return false;
+            }
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                String root = getRoot(url, packagePath);
+                if (root == null || !indexedRoots.contains(root)) {
+                    log.debug("Module index does not cover package [{}] in [{}]", basePackage, url);
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            log.debug("Unable to resolve classpath roots of package [{}]", basePackage, e);
+            return false;
+        }
+    }
+
+    /**
+     * 由资源URL去掉资源路径得到其所在类路径根的URL
+     *
+     * @param url          资源URL
+     * @param resourcePath 资源相对于类路径根的路径
+     * @return 类路径根的URL，URL不以该路径结尾时返回null
+     */
+    private static String getRoot(URL url, String resourcePath) {
+        String location = url.toString();
+        if (location.endsWith("/")) {
+            location = location.substring(0, location.length() - 1);
+        }
+        return location.endsWith(resourcePath) ? location.substring(0, location.length() - resourcePath.length()) : null;
+    }
+
+    private static List<ModuleIndexEntry> parse(Properties properties) {
+        List<ModuleIndexEntry> entries = new ArrayList<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.contains(ATTRIBUTE_SEPARATOR)) {
+                continue;
+            }
+            ModuleIndexEntry.Type type = parseType(properties.getProperty(key));
+            if (type == null) {
+                continue;
+            }
+            entries.add(new ModuleIndexEntry(key, type, properties.getProperty(key + ATTRIBUTE_SEPARATOR + BEAN_NAME)));
+        }
+        return entries;
+    }
+
+    /**
+     * 解析条目类型，忽略其他版本的处理器写入的未知类型
+     */
+    private static ModuleIndexEntry.Type parseType(String value) {
+        for (ModuleIndexEntry.Type type : ModuleIndexEntry.Type.values()) {
+            if (type.name().equals(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.dbapp.xsiam.spring.module.index;
+
+/**
+ * 模块索引条目，对应一个带有@ModuleComponent注解的类
+ * <p>
+ * 索引只记录注册Bean定义所需的信息，模块名称、依赖等注解属性在Bean创建后由{@code ModuleComponentBeanPostProcessor}读取
+ */
+public final class ModuleIndexEntry {
+
+    /**
+     * 索引条目类型
+     */
+    public enum Type {
+        /**
+         * 模块组件，对应@ModuleComponent
+         */
+        COMPONENT
+    }
+
+    private final String className;
+    private final Type type;
+    private final String beanName;
+
+    /**
+     * 构造函数
+     *
+     * @param className 类的全限定名
+     * @param type      条目类型
+     * @param beanName  注解声明的Bean名称，未声明时为空字符串
+     */
+    public ModuleIndexEntry(String className, Type type, String beanName) {
+        this.className = className;
+        this.type = type;
+        this.beanName = beanName != null ? beanName : "";
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    /**
+     * 判断类是否位于指定包或其子包下
+     *
+     * @param basePackage 包路径
+     * @return true如果位于该包下
+     */
+    public boolean isInPackage(String basePackage) {
+        return className.startsWith(basePackage + ".");
+    }
+}
@@ -0,0 +1,148 @@
+package com.dbapp.xsiam.spring.module.index;
+
+import com.dbapp.xsiam.spring.module.annotation.ModuleComponent;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 模块索引注解处理器，编译期收集带有@ModuleComponent注解的类，写入{@link ModuleIndex#INDEX_LOCATION}
+ * <p>
+ * 增量编译时会保留上一次索引中仍然存在且仍带有注解的类
+ */
+@SupportedAnnotationTypes("com.dbapp.xsiam.spring.module.annotation.ModuleComponent")
+public class ModuleIndexProcessor extends AbstractProcessor {
+
+    private final Map<String, String> index = new TreeMap<>();
+    private final Set<String> processedClasses = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(ModuleComponent.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                addComponent((TypeElement) element);
+            }
+        }
+
+        if (roundEnv.processingOver() && !processedClasses.isEmpty()) {
+            writeIndex();
+        }
+        // 不声明独占注解，其他处理器仍可处理这些注解
+        return false;
+    }
+
+    private void addComponent(TypeElement type) {
+        ModuleComponent annotation = type.getAnnotation(ModuleComponent.class);
+        String className = getClassName(type);
+
+        put(className, ModuleIndexEntry.Type.COMPONENT);
+        putAttribute(className, ModuleIndex.BEAN_NAME, annotation.value());
+    }
+
+    private void put(String className, ModuleIndexEntry.Type type) {
+        processedClasses.add(className);
+        index.put(className, type.name());
+    }
+
+    private void putAttribute(String className, String attribute, String value) {
+        if (!value.isEmpty()) {
+            index.put(className + ModuleIndex.ATTRIBUTE_SEPARATOR + attribute, value);
+        }
+    }
+
+    /**
+     * 合并上一次编译生成的索引并写入新索引
+     */
+    private void writeIndex() {
+        Properties properties = new Properties();
+        Properties existing = readExistingIndex();
+        for (String key : existing.stringPropertyNames()) {
+            String className = key.contains(ModuleIndex.ATTRIBUTE_SEPARATOR)
+                    ? key.substring(0, key.indexOf(ModuleIndex.ATTRIBUTE_SEPARATOR))
+                    : key;
+            // 只保留仍在使用的属性，旧版本索引中的其他属性随增量编译清除
+            boolean known = key.equals(className)
+                    || key.equals(className + ModuleIndex.ATTRIBUTE_SEPARATOR + ModuleIndex.BEAN_NAME);
+            if (known && !processedClasses.contains(className) && isStillAnnotated(className)) {
+                properties.setProperty(key, existing.getProperty(key));
+            }
+        }
+        properties.putAll(index);
+
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", ModuleIndex.INDEX_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                writer.write(toSortedString(properties));
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write module index " + ModuleIndex.INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    private Properties readExistingIndex() {
+        Properties properties = new Properties();
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", ModuleIndex.INDEX_LOCATION);
+            try (InputStream in = file.openInputStream()) {
+                properties.load(in);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 首次编译时不存在索引
+        }
+        return properties;
+    }
+
+    private boolean isStillAnnotated(String className) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+        return type != null && type.getAnnotation(ModuleComponent.class) != null;
+    }
+
+    /**
+     * 按键排序输出，不写入时间戳注释，保证相同输入生成相同的索引文件
+     */
+    private static String toSortedString(Properties properties) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            Properties single = new Properties();
+            single.setProperty(key, properties.getProperty(key));
+            StringWriter writer = new StringWriter();
+            single.store(writer, null);
+            for (String line : writer.toString().split("\\R")) {
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    builder.append(line).append('\n');
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private String getClassName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+}
@@ -0,0 +1,35 @@
+package com.dbapp.xsiam.spring.module.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 模块销毁JFR事件，事件持续时间为模块的销毁耗时
+ */
+@Name("com.dbapp.xsiam.module.Destroy")
+@Label("Module Destruction")
+@Category({"Spring Module", "Lifecycle"})
+@Description("Destruction of a module by the module lifecycle manager")
+@StackTrace(false)
+class ModuleDestroyJfrEvent extends Event {
+
+    @Label("Module")
+    String module;
+
+    @Label("Version")
+    String version;
+
+    @Label("Destroy Thread")
+    @Description("Thread that ran the module destruction")
+    String destroyThread;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Failure")
+    String failure;
+}
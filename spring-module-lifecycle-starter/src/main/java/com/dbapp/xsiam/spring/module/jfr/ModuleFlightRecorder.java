@@ -0,0 +1,156 @@
+package com.dbapp.xsiam.spring.module.jfr;
+
+import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.enums.ModuleGateOutcome;
+import com.dbapp.xsiam.spring.module.event.ModuleLifecycleListener;
+import com.dbapp.xsiam.spring.module.manager.ModuleRegistry;
+import com.dbapp.xsiam.spring.module.web.ModuleGateListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jdk.jfr.EventType;
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 将模块初始化、销毁和拦截器拒绝请求记录为JFR事件
+ * <p>
+ * 每次回调先检查对应事件类型是否启用，未开启JFR记录或事件被禁用时不创建事件、不记录任何状态
+ */
+public class ModuleFlightRecorder implements ModuleLifecycleListener, ModuleGateListener {
+
+    private static final String OUTCOME_SUCCESS = "SUCCESS";
+    private static final String OUTCOME_FAILURE = "FAILURE";
+
+    private final EventType initEventType = EventType.getEventType(ModuleInitJfrEvent.class);
+    private final EventType destroyEventType = EventType.getEventType(ModuleDestroyJfrEvent.class);
+    private final EventType gateRejectedEventType = EventType.getEventType(ModuleGateRejectedJfrEvent.class);
+    private final ModuleRegistry moduleRegistry;
+    private final Map<String, InitRecording> initRecordings = new ConcurrentHashMap<>();
+    private final Map<String, ModuleDestroyJfrEvent> destroyEvents = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param moduleRegistry 模块注册中心，用于记录被拒绝请求时模块的状态
+     */
+    public ModuleFlightRecorder(ModuleRegistry moduleRegistry) {
+        Assert.notNull(moduleRegistry, "ModuleRegistry must not be null");
+        this.moduleRegistry = moduleRegistry;
+    }
+
+    @Override
+    public void onInitQueued(Module module) {
+        if (initEventType.isEnabled()) {
+            initRecordings.put(module.getName(), new InitRecording(System.nanoTime()));
+        }
+    }
+
+    @Override
+    public void onDependenciesSatisfied(Module module) {
+        InitRecording recording = initRecordings.get(module.getName());
+        if (recording != null) {
+            recording.dependencyWait = System.nanoTime() - recording.queuedAt;
+        }
+    }
+
+    @Override
+    public void onInitStarted(Module module) {
+        InitRecording recording = initRecordings.get(module.getName());
+        if (recording != null) {
+            recording.initThread = Thread.currentThread().getName();
+            recording.event.begin();
+        }
+    }
+
+    @Override
+    public void onInitCompleted(Module module, long durationNanos, Throwable failure) {
+        InitRecording recording = initRecordings.remove(module.getName());
+        if (recording == null) {
+            return;
+        }
+
+        ModuleInitJfrEvent event = recording.event;
+        if (recording.initThread == null) {
+            // 依赖失败的模块没有开始初始化，记录为瞬时事件
+            event.begin();
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.module = module.getName();
+            event.version = module.getVersion();
+            event.initThread = recording.initThread;
+            event.dependencyWait = recording.dependencyWait;
+            event.outcome = failure == null ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+            event.failure = describe(failure);
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onDestroyStarted(Module module) {
+        if (destroyEventType.isEnabled()) {
+            ModuleDestroyJfrEvent event = new ModuleDestroyJfrEvent();
+            event.begin();
+            destroyEvents.put(module.getName(), event);
+        }
+    }
+
+    @Override
+    public void onDestroyCompleted(Module module, long durationNanos, Throwable failure) {
+        ModuleDestroyJfrEvent event = destroyEvents.remove(module.getName());
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.module = module.getName();
+            event.version = module.getVersion();
+            event.destroyThread = Thread.currentThread().getName();
+            event.outcome = failure == null ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+            event.failure = describe(failure);
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onGateDecision(String moduleName, ModuleGateOutcome outcome, HttpServletRequest request) {
+        if (outcome != ModuleGateOutcome.REJECTED || !gateRejectedEventType.isEnabled()) {
+            return;
+        }
+
+        ModuleGateRejectedJfrEvent event = new ModuleGateRejectedJfrEvent();
+        if (event.shouldCommit()) {
+            event.module = moduleName;
+            event.state = moduleRegistry.getModuleState(moduleName).name();
+            event.method = request.getMethod();
+            event.uri = request.getRequestURI();
+            event.commit();
+        }
+    }
+
+    private static String describe(Throwable failure) {
+        if (failure == null) {
+            return null;
+        }
+        return failure.getMessage() != null
+                ? failure.getClass().getName() + ": " + failure.getMessage()
+                : failure.getClass().getName();
+    }
+
+    /**
+     * 单个模块一次初始化的记录，事件在加入初始化计划时创建，在初始化线程上开始计时
+     */
+    private static final class InitRecording {
+
+        private final ModuleInitJfrEvent event = new ModuleInitJfrEvent();
+        private final long queuedAt;
+        private volatile long dependencyWait;
+        private volatile String initThread;
+
+        private InitRecording(long queuedAt) {
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.dbapp.xsiam.spring.module.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 模块拦截器拒绝请求的JFR事件
+ */
+@Name("com.dbapp.xsiam.module.GateRejected")
+@Label("Module Request Rejected")
+@Category({"Spring Module", "Web"})
+@Description("Request rejected by the module interceptor because its module was not ready")
+@StackTrace(false)
+class ModuleGateRejectedJfrEvent extends Event {
+
+    @Label("Module")
+    String module;
+
+    @Label("Module State")
+    String state;
+
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+}
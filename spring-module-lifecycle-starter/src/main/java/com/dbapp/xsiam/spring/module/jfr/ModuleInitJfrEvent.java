@@ -0,0 +1,41 @@
+package com.dbapp.xsiam.spring.module.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 模块初始化JFR事件，事件持续时间为模块在初始化线程上的初始化耗时
+ */
+@Name("com.dbapp.xsiam.module.Init")
+@Label("Module Initialization")
+@Category({"Spring Module", "Lifecycle"})
+@Description("Initialization of a module by the module lifecycle manager")
+@StackTrace(false)
+class ModuleInitJfrEvent extends Event {
+
+    @Label("Module")
+    String module;
+
+    @Label("Version")
+    String version;
+
+    @Label("Init Thread")
+    @Description("Thread that ran the module initialization")
+    String initThread;
+
+    @Label("Dependency Wait")
+    @Description("Time between queueing the module and all of its dependencies becoming ready")
+    @Timespan(Timespan.NANOSECONDS)
+    long dependencyWait;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Failure")
+    String failure;
+}
@@ -0,0 +1,85 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import java.util.Arrays;
+
+/**
+ * 不可变的模块位集合，按注册中心分配的模块编号标记模块
+ * <p>
+ * 既用于表示就绪模块快照，也用于表示一组需要同时就绪的模块
+ */
+public final class ModuleBitSet {
+
+    /**
+     * 空集合
+     */
+    public static final ModuleBitSet EMPTY = new ModuleBitSet(new long[0]);
+
+    private final long[] words;
+
+    private ModuleBitSet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * 判断指定编号的模块是否在集合中
+     *
+     * @param moduleId 模块编号
+     * @return true如果模块在集合中
+     */
+    public boolean get(int moduleId) {
+        int index = moduleId >>> 6;
+        return moduleId >= 0 && index < words.length && (words[index] & (1L << moduleId)) != 0;
+    }
+
+    /**
+     * 判断集合是否包含另一个集合中的全部模块
+     *
+     * @param mask 模块集合
+     * @return true如果全部包含
+     */
+    public boolean containsAll(ModuleBitSet mask) {
+        long[] maskWords = mask.words;
+        for (int i = 0; i < maskWords.length; i++) {
+            long word = i < words.length ? words[i] : 0L;
+            if ((word & maskWords[i]) != maskWords[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 返回设置或清除指定模块后的新集合，当前集合不变
+     *
+     * @param moduleId 模块编号
+     * @param value    true为设置，false为清除
+     * @return 新集合，未发生变化时返回当前集合
+     */
+    public ModuleBitSet with(int moduleId, boolean value) {
+        if (get(moduleId) == value) {
+            return this;
+        }
+
+        int index = moduleId >>> 6;
+        long[] newWords = Arrays.copyOf(words, Math.max(words.length, index + 1));
+        if (value) {
+            newWords[index] |= 1L << moduleId;
+        } else {
+            newWords[index] &= ~(1L << moduleId);
+        }
+        return new ModuleBitSet(newWords);
+    }
+
+    /**
+     * 获取集合中的模块数量
+     *
+     * @return 模块数量
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
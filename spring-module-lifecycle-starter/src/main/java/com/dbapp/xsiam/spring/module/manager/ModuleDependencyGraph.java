@@ -0,0 +1,286 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import com.dbapp.xsiam.spring.module.Module;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * 模块依赖图分析结果，不可变
+ * <p>
+ * 一次迭代式Tarjan强连通分量遍历同时得到拓扑顺序、全部循环依赖和全部缺失的依赖，
+ * 时间复杂度O(V+E)。边由模块指向其依赖，Tarjan算法总是先输出依赖所在的分量，
+ * 因此分量的输出顺序就是初始化顺序
+ */
+public final class ModuleDependencyGraph {
+
+    private static final int[] NO_EDGES = new int[0];
+
+    private final List<Module> sortedModules;
+    private final List<List<String>> cycles;
+    private final Map<String, Set<String>> missingDependencies;
+
+    private ModuleDependencyGraph(List<Module> sortedModules,
+                                  List<List<String>> cycles,
+                                  Map<String, Set<String>> missingDependencies) {
+        this.sortedModules = Collections.unmodifiableList(sortedModules);
+        this.cycles = Collections.unmodifiableList(cycles);
+        this.missingDependencies = Collections.unmodifiableMap(missingDependencies);
+    }
+
+    /**
+     * 分析模块依赖图，没有依赖关系约束的模块按order、名称排序
+     *
+     * @param modules 模块集合
+     * @return 分析结果
+     */
+    public static ModuleDependencyGraph build(Collection<Module> modules) {
+        Module[] nodes = modules.toArray(new Module[0]);
+        Arrays.sort(nodes, Comparator.comparingInt(Module::getOrder).thenComparing(Module::getName));
+        int n = nodes.length;
+
+        Map<String, Integer> indexByName = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexByName.put(nodes[i].getName(), i);
+        }
+
+        // 构建邻接表，依赖按模块排序后的下标排列，保证遍历顺序稳定
+        int[][] edges = new int[n][];
+        Map<String, Set<String>> missingDependencies = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            Set<String> dependencies = nodes[i].getDependencies();
+            if (dependencies.isEmpty()) {
+                edges[i] = NO_EDGES;
+                continue;
+            }
+            int[] targets = new int[dependencies.size()];
+            int count = 0;
+            for (String dependency : dependencies) {
+                Integer target = indexByName.get(dependency);
+                if (target != null) {
+                    targets[count++] = target;
+                } else {
+                    missingDependencies.computeIfAbsent(nodes[i].getName(), k -> new TreeSet<>()).add(dependency);
+                }
+            }
+            edges[i] = count == targets.length ? targets : Arrays.copyOf(targets, count);
+            Arrays.sort(edges[i]);
+        }
+
+        return new Tarjan(nodes, edges).run(missingDependencies);
+    }
+
+    /**
+     * 获取按依赖顺序排列的模块，依赖总是排在依赖方之前；同一循环依赖中的模块相邻排列，相互之间顺序不确定
+     *
+     * @return 不可修改的模块列表
+     */
+    public List<Module> getSortedModules() {
+        return sortedModules;
+    }
+
+    /**
+     * 获取全部循环依赖，每个强连通分量给出一条首尾相同的最短环路，如[a, b, c, a]表示a依赖b、b依赖c、c依赖a
+     *
+     * @return 不可修改的环路列表，没有循环依赖时为空
+     */
+    public List<List<String>> getCycles() {
+        return cycles;
+    }
+
+    /**
+     * 判断是否存在循环依赖
+     *
+     * @return true如果存在循环依赖
+     */
+    public boolean hasCycles() {
+        return !cycles.isEmpty();
+    }
+
+    /**
+     * 获取全部未注册的依赖
+     *
+     * @return 模块名称到其未注册依赖名称的不可修改映射
+     */
+    public Map<String, Set<String>> getMissingDependencies() {
+        return missingDependencies;
+    }
+
+    /**
+     * 描述全部循环依赖，如"a -> b -> a; c -> c"
+     *
+     * @return 循环依赖描述，没有循环依赖时为空字符串
+     */
+    public String describeCycles() {
+        return cycles.stream()
+                .map(cycle -> String.join(" -> ", cycle))
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * 描述全部未注册的依赖，如"a -> [x, y]; b -> [z]"
+     *
+     * @return 未注册依赖描述，没有未注册依赖时为空字符串
+     */
+    public String describeMissingDependencies() {
+        return missingDependencies.entrySet().stream()
+                .map(entry -> entry.getKey() + " -> " + entry.getValue())
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * 迭代式Tarjan强连通分量算法，使用显式栈避免长依赖链导致栈溢出
+     */
+    private static final class Tarjan {
+
+        private final Module[] nodes;
+        private final int[][] edges;
+        private final int[] index;
+        private final int[] lowLink;
+        private final int[] edgeCursor;
+        private final boolean[] onStack;
+        private final int[] componentStack;
+        private final int[] callStack;
+        private final boolean[] inComponent;
+        private final List<Module> sortedModules;
+        private final List<List<String>> cycles = new ArrayList<>();
+        private int componentTop;
+        private int nextIndex;
+
+        private Tarjan(Module[] nodes, int[][] edges) {
+            int n = nodes.length;
+            this.nodes = nodes;
+            this.edges = edges;
+            this.index = new int[n];
+            this.lowLink = new int[n];
+            this.edgeCursor = new int[n];
+            this.onStack = new boolean[n];
+            this.componentStack = new int[n];
+            this.callStack = new int[n];
+            this.inComponent = new boolean[n];
+            this.sortedModules = new ArrayList<>(n);
+            Arrays.fill(index, -1);
+        }
+
+        private ModuleDependencyGraph run(Map<String, Set<String>> missingDependencies) {
+            for (int root = 0; root < nodes.length; root++) {
+                if (index[root] < 0) {
+                    strongConnect(root);
+                }
+            }
+            return new ModuleDependencyGraph(sortedModules, cycles, missingDependencies);
+        }
+
+        private void strongConnect(int root) {
+            int callTop = 0;
+            visit(root);
+            callStack[callTop++] = root;
+
+            while (callTop > 0) {
+                int v = callStack[callTop - 1];
+                if (edgeCursor[v] < edges[v].length) {
+                    int w = edges[v][edgeCursor[v]++];
+                    if (index[w] < 0) {
+                        visit(w);
+                        callStack[callTop++] = w;
+                    } else if (onStack[w]) {
+                        lowLink[v] = Math.min(lowLink[v], index[w]);
+                    }
+                    continue;
+                }
+
+                callTop--;
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+                }
+                if (lowLink[v] == index[v]) {
+                    emitComponent(v);
+                }
+            }
+        }
+
+        private void visit(int v) {
+            index[v] = nextIndex;
+            lowLink[v] = nextIndex;
+            nextIndex++;
+            componentStack[componentTop++] = v;
+            onStack[v] = true;
+        }
+
+        private void emitComponent(int root) {
+            int start = componentTop;
+            do {
+                start--;
+                onStack[componentStack[start]] = false;
+            } while (componentStack[start] != root);
+
+            int[] component = Arrays.copyOfRange(componentStack, start, componentTop);
+            componentTop = start;
+
+            for (int member : component) {
+                sortedModules.add(nodes[member]);
+            }
+            if (component.length > 1 || Arrays.binarySearch(edges[root], root) >= 0) {
+                cycles.add(findCycle(root, component));
+            }
+        }
+
+        /**
+         * 在强连通分量内广度优先搜索从root出发回到root的最短环路
+         *
+         * @param root      分量的根
+         * @param component 分量中的全部模块
+         * @return 首尾均为root的环路
+         */
+        private List<String> findCycle(int root, int[] component) {
+            Map<Integer, Integer> parents = new HashMap<>(component.length * 2);
+            for (int member : component) {
+                inComponent[member] = true;
+            }
+
+            int[] queue = new int[component.length];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            int last = -1;
+            while (head < tail && last < 0) {
+                int v = queue[head++];
+                for (int w : edges[v]) {
+                    if (w == root) {
+                        last = v;
+                        break;
+                    }
+                    if (inComponent[w] && !parents.containsKey(w)) {
+                        parents.put(w, v);
+                        queue[tail++] = w;
+                    }
+                }
+            }
+
+            for (int member : component) {
+                inComponent[member] = false;
+            }
+
+            List<String> cycle = new ArrayList<>();
+            cycle.add(nodes[root].getName());
+            for (int v = last; v != root; v = parents.get(v)) {
+                cycle.add(nodes[v].getName());
+            }
+            cycle.add(nodes[root].getName());
+            // 回溯得到的是逆序路径，翻转中间部分使其沿依赖方向排列
+            Collections.reverse(cycle.subList(1, cycle.size() - 1));
+            return cycle;
+        }
+    }
+}
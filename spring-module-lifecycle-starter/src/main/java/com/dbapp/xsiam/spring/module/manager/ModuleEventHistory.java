@@ -0,0 +1,169 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.enums.ModuleState;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 模块事件历史，在固定容量的环形缓冲区中按顺序记录最近的模块状态变更，每条记录有从1开始递增的序号
+ * <p>
+ * 记录由执行状态变更的线程同步写入预先分配的数组，写入时不创建对象；容量用尽后覆盖最旧的记录。
+ * 启动后才订阅的组件可以从已知序号之后回放错过的变更，或等待指定模块就绪，而不必轮询注册中心
+ */
+public class ModuleEventHistory {
+
+    private final ModuleRegistry registry;
+    private final int capacity;
+
+    /**
+     * 环形缓冲区，序号为n的记录位于下标n % capacity，以下字段均由this保护
+     */
+    private final long[] timestamps;
+    private final String[] moduleNames;
+    private final ModuleState[] previousStates;
+    private final ModuleState[] currentStates;
+    private final String[] failures;
+    private long nextSequence = 1;
+
+    /**
+     * 构造函数
+     *
+     * @param registry 模块注册中心
+     * @param capacity 保留的最大记录数
+     */
+    public ModuleEventHistory(ModuleRegistry registry, int capacity) {
+        Assert.notNull(registry, "ModuleRegistry must not be null");
+        Assert.isTrue(capacity > 0, "Capacity must be positive");
+        this.registry = registry;
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.moduleNames = new String[capacity];
+        this.previousStates = new ModuleState[capacity];
+        this.currentStates = new ModuleState[capacity];
+        this.failures = new String[capacity];
+        registry.addStateListener(this::record);
+    }
+
+    /**
+     * 获取最新一条记录的序号
+     *
+     * @return 序号，尚无记录时为0
+     */
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * 获取仍保留的最旧一条记录的序号
+     *
+     * @return 序号，尚无记录时为1
+     */
+    public synchronized long getOldestSequence() {
+        return Math.max(1, nextSequence - capacity);
+    }
+
+    /**
+     * 回放指定序号之后的全部记录；已被覆盖的记录无法回放，
+     * 调用方可通过{@link #getOldestSequence()}判断是否错过了记录
+     *
+     * @param afterSequence 已处理的最后一条记录的序号，0表示从最旧的记录开始
+     * @return 按序号排列的记录
+     */
+    public synchronized List<Entry> replay(long afterSequence) {
+        long from = Math.max(afterSequence + 1, nextSequence - capacity);
+        if (from >= nextSequence) {
+            return Collections.emptyList();
+        }
+
+        List<Entry> entries = new ArrayList<>((int) (nextSequence - from));
+        for (long sequence = from; sequence < nextSequence; sequence++) {
+            int index = (int) (sequence % capacity);
+            entries.add(new Entry(sequence, timestamps[index], moduleNames[index],
+                    previousStates[index], currentStates[index], failures[index]));
+        }
+        return entries;
+    }
+
+    /**
+     * 等待模块进入就绪状态，等同于{@link ModuleRegistry#whenReady(String)}
+     *
+     * @param moduleName 模块名称
+     * @return 模块就绪后以该模块完成的Future，模块初始化失败或被注销时以异常完成
+     */
+    public CompletableFuture<Module> awaitReady(String moduleName) {
+        return registry.whenReady(moduleName);
+    }
+
+    private synchronized void record(Module module, ModuleState previousState, ModuleState currentState) {
+        int index = (int) (nextSequence % capacity);
+        timestamps[index] = System.currentTimeMillis();
+        moduleNames[index] = module.getName();
+        previousStates[index] = previousState;
+        currentStates[index] = currentState;
+        Throwable failure = currentState == ModuleState.FAILED ? module.getFailureCause() : null;
+        failures[index] = failure != null ? String.valueOf(failure.getMessage()) : null;
+        nextSequence++;
+    }
+
+    /**
+     * 一条模块状态变更记录，不可变
+     */
+    public static final class Entry {
+
+        private final long sequence;
+        private final long timestamp;
+        private final String moduleName;
+        private final ModuleState previousState;
+        private final ModuleState currentState;
+        private final String failure;
+
+        private Entry(long sequence, long timestamp, String moduleName,
+                      ModuleState previousState, ModuleState currentState, String failure) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.moduleName = moduleName;
+            this.previousState = previousState;
+            this.currentState = currentState;
+            this.failure = failure;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * 获取状态变更的时间
+         *
+         * @return 毫秒时间戳
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getModuleName() {
+            return moduleName;
+        }
+
+        public ModuleState getPreviousState() {
+            return previousState;
+        }
+
+        public ModuleState getCurrentState() {
+            return currentState;
+        }
+
+        /**
+         * 获取失败原因，仅在变更为FAILED状态时存在
+         *
+         * @return 失败原因，没有时为null
+         */
+        public String getFailure() {
+            return failure;
+        }
+    }
+}
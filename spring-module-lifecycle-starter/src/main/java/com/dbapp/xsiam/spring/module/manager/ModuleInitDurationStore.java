@@ -0,0 +1,108 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模块初始化耗时记录，用于估算模块的关键路径权重
+ * <p>
+ * 指定存储文件时，启动时加载上一次运行记录的耗时，初始化完成后写回文件
+ */
+@Slf4j
+public class ModuleInitDurationStore {
+
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private final Path storeFile;
+
+    /**
+     * 创建仅在内存中记录耗时的存储
+     */
+    public ModuleInitDurationStore() {
+        this(null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param storeFile 耗时记录文件，为null时仅在内存中记录
+     */
+    public ModuleInitDurationStore(Path storeFile) {
+        this.storeFile = storeFile;
+        load();
+    }
+
+    /**
+     * 获取模块记录的初始化耗时
+     *
+     * @param moduleName 模块名称
+     * @return 初始化耗时（毫秒），未记录时返回0
+     */
+    public long getDuration(String moduleName) {
+        Long duration = durations.get(moduleName);
+        return duration != null ? duration : 0L;
+    }
+
+    /**
+     * 记录模块的初始化耗时
+     *
+     * @param moduleName 模块名称
+     * @param duration   初始化耗时（毫秒）
+     */
+    public void record(String moduleName, long duration) {
+        durations.put(moduleName, Math.max(duration, 0L));
+    }
+
+    /**
+     * 将记录的耗时写入存储文件
+     */
+    public void save() {
+        if (storeFile == null) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        durations.forEach((name, duration) -> properties.setProperty(name, String.valueOf(duration)));
+
+        try {
+            Path parent = storeFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (OutputStream out = Files.newOutputStream(storeFile)) {
+                properties.store(out, "module init durations (ms)");
+            }
+        } catch (IOException e) {
+            log.warn("Failed to save module init durations to [{}]", storeFile, e);
+        }
+    }
+
+    private void load() {
+        if (storeFile == null || !Files.isRegularFile(storeFile)) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(storeFile)) {
+            properties.load(in);
+        } catch (IOException e) {
+            log.warn("Failed to load module init durations from [{}]", storeFile, e);
+            return;
+        }
+
+        for (String name : properties.stringPropertyNames()) {
+            try {
+                record(name, Long.parseLong(properties.getProperty(name).trim()));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring invalid init duration for module [{}]: {}", name, properties.getProperty(name));
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 模块初始化调度器，维护已就绪（依赖均已完成）的模块任务队列，
+ * 在并发数受限时总是优先派发关键路径权重最大的任务
+ * <p>
+ * 任务的Future被取消或由外部以异常完成（如{@link CompletableFuture#orTimeout}超时）时放弃该任务：
+ * 排队中的任务不再执行，运行中的任务被中断并立即释放并发额度，不再等待其线程返回
+ */
+@Slf4j
+public class ModuleInitScheduler {
+
+    private final Executor executor;
+    private final int maxConcurrency;
+    private final PriorityQueue<ScheduledTask> readyQueue = new PriorityQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private int running;
+
+    /**
+     * 构造函数
+     *
+     * @param executor       执行任务的线程池
+     * @param maxConcurrency 同时运行的最大任务数
+     */
+    public ModuleInitScheduler(Executor executor, int maxConcurrency) {
+        Assert.notNull(executor, "Executor must not be null");
+        Assert.isTrue(maxConcurrency > 0, "Max concurrency must be positive");
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * 提交一个已就绪的任务，权重越大越先执行，权重相同时按提交顺序执行
+     *
+     * @param taskName 任务名称，任务执行期间作为线程名称
+     * @param weight   关键路径权重
+     * @param action   任务逻辑
+     * @return 任务执行完成的Future，取消或以异常完成该Future即放弃任务
+     */
+    public CompletableFuture<Void> schedule(String taskName, long weight, Runnable action) {
+        ScheduledTask task = new ScheduledTask(taskName, weight, sequence.getAndIncrement(), action);
+        synchronized (readyQueue) {
+            readyQueue.add(task);
+        }
+        task.future.whenComplete((result, ex) -> {
+            if (ex != null) {
+                abandon(task);
+            }
+        });
+        dispatch();
+        return task.future;
+    }
+
+    /**
+     * 获取当前排队等待执行的任务数
+     *
+     * @return 排队任务数
+     */
+    public int getQueuedCount() {
+        synchronized (readyQueue) {
+            return readyQueue.size();
+        }
+    }
+
+    /**
+     * 在有空闲并发额度时，按权重从高到低派发排队任务
+     */
+    private void dispatch() {
+        while (true) {
+            ScheduledTask task;
+            synchronized (readyQueue) {
+                if (running >= maxConcurrency || readyQueue.isEmpty()) {
+                    return;
+                }
+                task = readyQueue.poll();
+                running++;
+            }
+
+            try {
+                executor.execute(() -> runTask(task));
+            } catch (RejectedExecutionException e) {
+                synchronized (readyQueue) {
+                    task.released = true;
+                    running--;
+                }
+                log.error("Task [{}] rejected by executor", task.taskName);
+                task.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void runTask(ScheduledTask task) {
+        Thread currentThread = Thread.currentThread();
+        String originalName = currentThread.getName();
+        currentThread.setName(task.taskName);
+        synchronized (task) {
+            task.runner = currentThread;
+        }
+        Throwable failure = null;
+        try {
+            if (!task.future.isDone()) {
+                task.action.run();
+            }
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            synchronized (task) {
+                task.runner = null;
+            }
+            // 清除放弃任务时留下的中断标记，避免影响线程池中的下一个任务
+            Thread.interrupted();
+            currentThread.setName(originalName);
+            release(task);
+        }
+
+        if (failure == null) {
+            task.future.complete(null);
+        } else {
+            task.future.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * 放弃任务：仍在排队时移出队列；正在运行时中断其线程并释放并发额度
+     *
+     * @param task 被取消或超时的任务
+     */
+    private void abandon(ScheduledTask task) {
+        synchronized (readyQueue) {
+            if (readyQueue.remove(task)) {
+                return;
+            }
+        }
+        synchronized (task) {
+            if (task.runner == null) {
+                return;
+            }
+            log.warn("Task [{}] abandoned while running, interrupting thread [{}]", task.taskName, task.runner.getName());
+            task.runner.interrupt();
+        }
+        release(task);
+    }
+
+    /**
+     * 释放任务占用的并发额度并派发排队任务，同一任务只释放一次
+     *
+     * @param task 任务
+     */
+    private void release(ScheduledTask task) {
+        synchronized (readyQueue) {
+            if (task.released) {
+                return;
+            }
+            task.released = true;
+            running--;
+        }
+        dispatch();
+    }
+
+    /**
+     * 排队中的任务
+     */
+    private static final class ScheduledTask implements Comparable<ScheduledTask> {
+
+        private final String taskName;
+        private final long weight;
+        private final long sequence;
+        private final Runnable action;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        /**
+         * 运行任务的线程，由任务自身保护
+         */
+        private Thread runner;
+
+        /**
+         * 是否已释放并发额度，由调度器的readyQueue保护
+         */
+        private boolean released;
+
+        private ScheduledTask(String taskName, long weight, long sequence, Runnable action) {
+            this.taskName = taskName;
+            this.weight = weight;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            int result = Long.compare(other.weight, weight);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
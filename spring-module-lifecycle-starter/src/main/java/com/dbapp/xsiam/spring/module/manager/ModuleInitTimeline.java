@@ -0,0 +1,242 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.event.ModuleLifecycleListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模块初始化时间线，记录每个模块加入初始化计划、依赖就绪、开始和结束初始化的时间，
+ * 用于分析启动耗时的关键路径和初始化线程的空闲时段
+ * <p>
+ * 模块重新初始化时覆盖该模块之前的记录
+ */
+public class ModuleInitTimeline implements ModuleLifecycleListener {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public void onInitQueued(Module module) {
+        entries.put(module.getName(), new Entry(module.getName(), module.getDependencies(), System.nanoTime()));
+    }
+
+    @Override
+    public void onDependenciesSatisfied(Module module) {
+        Entry entry = entries.get(module.getName());
+        if (entry != null) {
+            entry.dependenciesSatisfiedAt = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void onInitStarted(Module module) {
+        Entry entry = entries.get(module.getName());
+        if (entry != null) {
+            entry.startedAt = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void onInitCompleted(Module module, long durationNanos, Throwable failure) {
+        Entry entry = entries.get(module.getName());
+        if (entry != null) {
+            entry.failure = failure != null ? String.valueOf(failure.getMessage()) : null;
+            entry.endedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * 获取时间线条目，按加入初始化计划的时间排序
+     *
+     * @return 时间线条目列表
+     */
+    public List<Entry> getEntries() {
+        List<Entry> result = new ArrayList<>(entries.values());
+        result.sort(Comparator.comparingLong(Entry::getQueuedAt));
+        return result;
+    }
+
+    /**
+     * 获取时间线的起点，即最早加入初始化计划的时间
+     *
+     * @return 起点（纳秒），没有记录时返回0
+     */
+    public long getStartTime() {
+        return entries.values().stream().mapToLong(Entry::getQueuedAt).min().orElse(0L);
+    }
+
+    /**
+     * 计算关键路径：从最晚结束的模块开始，逐级回溯最晚结束、决定其依赖就绪时间的依赖模块
+     *
+     * @return 关键路径上的模块名称，按初始化先后排列
+     */
+    public List<String> getCriticalPath() {
+        Entry current = entries.values().stream()
+                .filter(entry -> entry.endedAt != 0)
+                .max(Comparator.comparingLong(Entry::getEndedAt))
+                .orElse(null);
+
+        List<String> path = new ArrayList<>();
+        while (current != null && !path.contains(current.name)) {
+            path.add(current.name);
+            Entry gating = null;
+            for (String dependency : current.dependencies) {
+                Entry candidate = entries.get(dependency);
+                if (candidate != null && candidate.endedAt != 0
+                        && (gating == null || candidate.endedAt > gating.endedAt)) {
+                    gating = candidate;
+                }
+            }
+            current = gating;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * 计算空闲时段，即时间线范围内正在初始化的模块数少于并发数的时段，相邻且空闲数相同的时段会合并；
+     * 异步初始化的模块在等待期间也计为正在初始化
+     *
+     * @param concurrency 初始化并发数
+     * @return 空闲时段列表
+     */
+    public List<IdleGap> getIdleGaps(int concurrency) {
+        List<long[]> events = new ArrayList<>();
+        long now = System.nanoTime();
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (Entry entry : entries.values()) {
+            start = Math.min(start, entry.queuedAt);
+            if (entry.startedAt != 0) {
+                // 仍在初始化的模块计算到当前时间
+                long endedAt = entry.endedAt != 0 ? entry.endedAt : now;
+                events.add(new long[]{entry.startedAt, 1});
+                events.add(new long[]{endedAt, -1});
+                end = Math.max(end, endedAt);
+            }
+        }
+        if (events.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // 同一时刻先处理结束再处理开始
+        events.sort(Comparator.<long[]>comparingLong(event -> event[0]).thenComparingLong(event -> event[1]));
+
+        List<IdleGap> gaps = new ArrayList<>();
+        int running = 0;
+        long cursor = start;
+        for (long[] event : events) {
+            addGap(gaps, cursor, event[0], concurrency - running);
+            running += (int) event[1];
+            cursor = event[0];
+        }
+        addGap(gaps, cursor, end, concurrency - running);
+        return gaps;
+    }
+
+    private void addGap(List<IdleGap> gaps, long from, long to, int idleThreads) {
+        if (to <= from || idleThreads <= 0) {
+            return;
+        }
+        if (!gaps.isEmpty()) {
+            IdleGap last = gaps.get(gaps.size() - 1);
+            if (last.end == from && last.idleThreads == idleThreads) {
+                gaps.set(gaps.size() - 1, new IdleGap(last.start, to, idleThreads));
+                return;
+            }
+        }
+        gaps.add(new IdleGap(from, to, idleThreads));
+    }
+
+    /**
+     * 单个模块的时间线条目，时间均为{@link System#nanoTime()}，未发生的阶段为0
+     */
+    public static final class Entry {
+
+        private final String name;
+        private final Set<String> dependencies;
+        private final long queuedAt;
+        private volatile long dependenciesSatisfiedAt;
+        private volatile long startedAt;
+        private volatile long endedAt;
+        private volatile String failure;
+
+        private Entry(String name, Set<String> dependencies, long queuedAt) {
+            this.name = name;
+            this.dependencies = Set.copyOf(dependencies);
+            this.queuedAt = queuedAt;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getQueuedAt() {
+            return queuedAt;
+        }
+
+        public long getDependenciesSatisfiedAt() {
+            return dependenciesSatisfiedAt;
+        }
+
+        public long getStartedAt() {
+            return startedAt;
+        }
+
+        public long getEndedAt() {
+            return endedAt;
+        }
+
+        /**
+         * 获取失败原因
+         *
+         * @return 失败原因描述，成功或尚未结束时返回null
+         */
+        public String getFailure() {
+            return failure;
+        }
+    }
+
+    /**
+     * 初始化线程的空闲时段，时间为{@link System#nanoTime()}
+     */
+    public static final class IdleGap {
+
+        private final long start;
+        private final long end;
+        private final int idleThreads;
+
+        private IdleGap(long start, long end, int idleThreads) {
+            this.start = start;
+            this.end = end;
+            this.idleThreads = idleThreads;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public int getIdleThreads() {
+            return idleThreads;
+        }
+
+        /**
+         * 获取空闲时长
+         *
+         * @return 空闲时长（毫秒）
+         */
+        public long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(end - start);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.dbapp.xsiam.spring.module.manager;
 
 import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.enums.ModuleExecutorMode;
 import com.dbapp.xsiam.spring.module.enums.ModuleState;
 import com.dbapp.xsiam.spring.module.event.ModuleFailedEvent;
+import com.dbapp.xsiam.spring.module.event.ModuleLifecycleListener;
 import com.dbapp.xsiam.spring.module.event.ModuleReadyEvent;
 import com.dbapp.xsiam.spring.module.event.ModuleStateChangeEvent;
 import jakarta.annotation.PreDestroy;
@@ -12,6 +14,8 @@ import org.springframework.util.Assert;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -20,10 +24,37 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ModuleLifecycleManager {
 
+    /**
+     * 未声明且未记录初始化耗时的模块使用的默认耗时（毫秒），保证依赖链长度参与权重计算
+     */
+    private static final long DEFAULT_INIT_DURATION = 1L;
+
+    /**
+     * 模块初始化和销毁任务执行期间的线程名称前缀，后接模块名称
+     */
+    private static final String INIT_THREAD_PREFIX = "module-init-";
+    private static final String DESTROY_THREAD_PREFIX = "module-destroy-";
+
+    /**
+     * 默认的整体关闭时限和单个模块销毁时限（毫秒）
+     */
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT = 30000L;
+    private static final long DEFAULT_DESTROY_TIMEOUT = 10000L;
+
     private final ModuleRegistry registry;
     private final ExecutorService executorService;
+    private final ModuleInitScheduler scheduler;
+    private final ScheduledExecutorService timeoutExecutor;
+    private final ModuleInitDurationStore durationStore;
     private final ApplicationEventPublisher eventPublisher;
     private final long initTimeout;
+    private final int concurrency;
+    private final Map<String, CompletableFuture<Void>> initializations = new ConcurrentHashMap<>();
+    private final List<ModuleLifecycleListener> lifecycleListeners = new CopyOnWriteArrayList<>();
+    private final ModuleInitTimeline initTimeline = new ModuleInitTimeline();
+    private volatile CriticalPathPlan criticalPathPlan;
+    private long shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+    private long destroyTimeout = DEFAULT_DESTROY_TIMEOUT;
 
     /**
      * 构造函数
@@ -34,51 +65,167 @@ public class ModuleLifecycleManager {
      * @param eventPublisher 事件发布器
      */
     public ModuleLifecycleManager(ModuleRegistry registry, int threadPoolSize, long initTimeout, ApplicationEventPublisher eventPublisher) {
+        this(registry, threadPoolSize, initTimeout, eventPublisher, new ModuleInitDurationStore());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param registry       模块注册中心
+     * @param threadPoolSize 线程池大小
+     * @param initTimeout    初始化超时时间（毫秒）
+     * @param eventPublisher 事件发布器
+     * @param durationStore  模块初始化耗时记录
+     */
+    public ModuleLifecycleManager(ModuleRegistry registry,
+                                  int threadPoolSize,
+                                  long initTimeout,
+                                  ApplicationEventPublisher eventPublisher,
+                                  ModuleInitDurationStore durationStore) {
+        this(registry, ModuleExecutorMode.FIXED, threadPoolSize, initTimeout, eventPublisher, durationStore);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param registry       模块注册中心
+     * @param executorMode   模块任务执行模式
+     * @param concurrency    最大并发数，FIXED模式下即线程池大小
+     * @param initTimeout    初始化超时时间（毫秒）
+     * @param eventPublisher 事件发布器
+     * @param durationStore  模块初始化耗时记录
+     */
+    public ModuleLifecycleManager(ModuleRegistry registry,
+                                  ModuleExecutorMode executorMode,
+                                  int concurrency,
+                                  long initTimeout,
+                                  ApplicationEventPublisher eventPublisher,
+                                  ModuleInitDurationStore durationStore) {
         Assert.notNull(registry, "ModuleRegistry must not be null");
+        Assert.notNull(executorMode, "ModuleExecutorMode must not be null");
         Assert.notNull(eventPublisher, "ApplicationEventPublisher must not be null");
-        Assert.isTrue(threadPoolSize > 0, "Thread pool size must be positive");
+        Assert.notNull(durationStore, "ModuleInitDurationStore must not be null");
+        Assert.isTrue(concurrency > 0, "Concurrency must be positive");
         Assert.isTrue(initTimeout > 0, "Init timeout must be positive");
 
         this.registry = registry;
-
-        // 初始化线程池 todo 根据后期改为从项目中获取
-        this.executorService = Executors.newFixedThreadPool(threadPoolSize, r -> {
-            Thread thread = new Thread(r, "module-init-thread");
+        this.executorService = createExecutorService(executorMode, concurrency);
+        this.scheduler = new ModuleInitScheduler(executorService, concurrency);
+        this.timeoutExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "module-lifecycle-timeout");
             thread.setDaemon(true);
             return thread;
         });
+        this.durationStore = durationStore;
+        this.concurrency = concurrency;
         this.initTimeout = initTimeout;
         this.eventPublisher = eventPublisher;
+        this.lifecycleListeners.add(initTimeline);
+    }
+
+    /**
+     * 添加模块生命周期监听器
+     *
+     * @param listener 监听器
+     */
+    public void addLifecycleListener(ModuleLifecycleListener listener) {
+        Assert.notNull(listener, "Listener must not be null");
+        lifecycleListeners.add(listener);
     }
 
     /**
-     * 初始化所有模块
+     * 获取模块初始化时间线
+     *
+     * @return 初始化时间线
+     */
+    public ModuleInitTimeline getInitTimeline() {
+        return initTimeline;
+    }
+
+    /**
+     * 获取模块初始化和销毁的最大并发数
+     *
+     * @return 最大并发数
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * 设置关闭时所有模块销毁及线程池关闭的整体时限
+     *
+     * @param shutdownTimeout 整体时限（毫秒）
+     */
+    public void setShutdownTimeout(long shutdownTimeout) {
+        Assert.isTrue(shutdownTimeout > 0, "Shutdown timeout must be positive");
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    /**
+     * 设置单个模块销毁的时限，超时后中断该模块的销毁线程，继续销毁其依赖模块
+     *
+     * @param destroyTimeout 单个模块时限（毫秒）
+     */
+    public void setDestroyTimeout(long destroyTimeout) {
+        Assert.isTrue(destroyTimeout > 0, "Destroy timeout must be positive");
+        this.destroyTimeout = destroyTimeout;
+    }
+
+    /**
+     * 初始化所有非延迟模块及其依赖的模块，未被非延迟模块依赖的延迟模块保持注册状态，在首次被请求时初始化
      */
     public void initializeAllModules() {
         List<Module> sortedModules = sortModulesByDependencies();
+        ModuleDependencyGraph graph = registry.getDependencyGraph();
+        if (!graph.getMissingDependencies().isEmpty()) {
+            log.warn("Modules depend on unregistered modules: {}", graph.describeMissingDependencies());
+        }
 
         if (sortedModules.isEmpty()) {
             log.info("No modules to initialize");
             return;
         }
 
-        log.info("Initializing {} modules in order: {}", sortedModules.size(),
-                sortedModules.stream().map(Module::getName).collect(Collectors.joining(", ")));
+        // 关键路径权重大于其所有下游模块，按权重降序创建Future同样满足依赖顺序
+        Map<String, Long> weights = getCriticalPathWeights();
+        Set<String> eagerModules = collectEagerModules(sortedModules);
+        List<Module> scheduleOrder = sortedModules.stream()
+                .filter(module -> eagerModules.contains(module.getName()))
+                .sorted(Comparator.comparingLong((Module module) -> weights.get(module.getName())).reversed())
+                .collect(Collectors.toList());
 
-        Map<String, CompletableFuture<Void>> futures = new ConcurrentHashMap<>();
+        log.info("Initializing {} modules by critical path: {}", scheduleOrder.size(),
+                scheduleOrder.stream()
+                        .map(module -> module.getName() + "(" + weights.get(module.getName()) + "ms)")
+                        .collect(Collectors.joining(", ")));
+        if (scheduleOrder.size() < sortedModules.size()) {
+            log.info("Deferring initialization of lazy modules: {}", sortedModules.stream()
+                    .map(Module::getName)
+                    .filter(name -> !eagerModules.contains(name))
+                    .collect(Collectors.joining(", ")));
+        }
 
-        for (Module module : sortedModules) {
-            CompletableFuture<Void> future = createModuleInitializationFuture(module, futures);
-            futures.put(module.getName(), future);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        List<Module> queuedModules = new ArrayList<>();
+        CompletableFuture<Void> released = new CompletableFuture<>();
+        try {
+            synchronized (initializations) {
+                for (Module module : scheduleOrder) {
+                    futures.add(getOrCreateInitializationFuture(module, weights, queuedModules, released));
+                }
+            }
+        } finally {
+            releaseInitializations(queuedModules, released);
         }
 
         // 等待所有模块初始化完成
-        CompletableFuture<Void> allFutures = CompletableFuture.allOf(
-                futures.values().toArray(new CompletableFuture[0]));
+        CompletableFuture<Void> allFutures = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        allFutures.whenComplete((result, ex) -> durationStore.save());
 
         try {
             allFutures.get(initTimeout, TimeUnit.MILLISECONDS);
-            log.info("All modules initialized successfully");
+            log.info("All modules initialized successfully, critical path: {}",
+                    String.join(" -> ", initTimeline.getCriticalPath()));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.error("Module initialization interrupted");
@@ -108,16 +255,73 @@ public class ModuleLifecycleManager {
         }
 
         try {
-            Map<String, CompletableFuture<Void>> futures = new ConcurrentHashMap<>();
-            CompletableFuture<Void> future = createModuleInitializationFuture(module, futures);
-            future.get(initTimeout, TimeUnit.MILLISECONDS);
+            initializeModuleAsync(moduleName).get(initTimeout, TimeUnit.MILLISECONDS);
             return module.getState() == ModuleState.READY;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while initializing module [{}]", moduleName);
+            return false;
         } catch (Exception e) {
             log.error("Failed to initialize module [{}]", moduleName, e);
             return false;
         }
     }
 
+    /**
+     * 异步初始化模块及其尚未初始化的依赖模块，模块正在初始化时返回进行中的Future，不会重复初始化；
+     * 可在请求线程上调用，依赖图和关键路径权重复用缓存，只在创建Future时短暂持有锁
+     *
+     * @param moduleName 模块名称
+     * @return 初始化Future，模块不存在、存在循环依赖或者模块及其依赖初始化失败时异常完成
+     */
+    public CompletableFuture<Void> initializeModuleAsync(String moduleName) {
+        Module module = registry.getModule(moduleName);
+        if (module == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Module [" + moduleName + "] not found"));
+        }
+
+        try {
+            synchronized (initializations) {
+                CompletableFuture<Void> existing = findReusableInitializationFuture(moduleName);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+            Map<String, Long> weights = getCriticalPathWeights();
+            List<Module> queuedModules = new ArrayList<>();
+            CompletableFuture<Void> released = new CompletableFuture<>();
+            try {
+                synchronized (initializations) {
+                    return getOrCreateInitializationFuture(module, weights, queuedModules, released);
+                }
+            } finally {
+                releaseInitializations(queuedModules, released);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to schedule initialization of module [{}]: {}", moduleName, e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 收集启动时需要初始化的模块，即非延迟模块及其直接或间接依赖的模块
+     *
+     * @param sortedModules 按拓扑顺序排列的模块列表
+     * @return 模块名称集合
+     */
+    private Set<String> collectEagerModules(List<Module> sortedModules) {
+        Set<String> eagerModules = new HashSet<>();
+        // 逆拓扑顺序遍历，依赖方总是先于其依赖被处理
+        for (int i = sortedModules.size() - 1; i >= 0; i--) {
+            Module module = sortedModules.get(i);
+            if (!module.isLazy() || eagerModules.contains(module.getName())) {
+                eagerModules.add(module.getName());
+                eagerModules.addAll(module.getDependencies());
+            }
+        }
+        return eagerModules;
+    }
+
     /**
      * 销毁模块
      *
@@ -132,11 +336,12 @@ public class ModuleLifecycleManager {
         }
 
         try {
-            ModuleState previousState = module.getState();
-            module.destroy();
-            registry.unregisterModule(moduleName);
-            publishStateChangeEvent(module, previousState, ModuleState.UNREGISTERED);
+            destroyModuleAsync(module, destroyTimeout).get();
             return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while destroying module [{}]", moduleName);
+            return false;
         } catch (Exception e) {
             log.error("Failed to destroy module [{}]", moduleName, e);
             return false;
@@ -144,13 +349,105 @@ public class ModuleLifecycleManager {
     }
 
     /**
-     * 关闭管理器，释放资源
+     * 在生命周期线程池上销毁模块，销毁完成后注销模块
+     *
+     * @param module  要销毁的模块
+     * @param timeout 销毁时限（毫秒）
+     * @return 销毁Future，超过时限时以{@link TimeoutException}异常完成，模块保持注册；
+     * 超时即放弃销毁任务，仍在运行的销毁线程被中断，并释放其占用的并发额度
+     */
+    private CompletableFuture<Void> destroyModuleAsync(Module module, long timeout) {
+        String moduleName = module.getName();
+        ModuleState previousState = module.getState();
+
+        return scheduler.schedule(DESTROY_THREAD_PREFIX + moduleName, 0, () -> {
+                    fireLifecycleEvent(listener -> listener.onDestroyStarted(module));
+                    long startTime = System.nanoTime();
+                    try {
+                        module.destroy();
+                    } catch (RuntimeException e) {
+                        fireLifecycleEvent(listener -> listener.onDestroyCompleted(module, System.nanoTime() - startTime, e));
+                        throw e;
+                    }
+                    fireLifecycleEvent(listener -> listener.onDestroyCompleted(module, System.nanoTime() - startTime, null));
+                    registry.unregisterModule(moduleName);
+                    publishStateChangeEvent(module, previousState, ModuleState.UNREGISTERED);
+                })
+                .orTimeout(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 创建执行模块初始化和销毁任务的线程池
+     *
+     * @param executorMode 执行模式
+     * @param concurrency  最大并发数
+     * @return 线程池
+     */
+    private ExecutorService createExecutorService(ModuleExecutorMode executorMode, int concurrency) {
+        if (executorMode == ModuleExecutorMode.VIRTUAL) {
+            ThreadFactory threadFactory = createVirtualThreadFactory();
+            if (threadFactory == null) {
+                log.warn("Virtual threads are not supported by the current JVM (Java {}), executor mode VIRTUAL falls back to "
+                                + "an unpooled platform thread per module task, up to {} (module.lifecycle.max-concurrency) threads at once",
+                        Runtime.version().feature(), concurrency);
+                AtomicInteger threadIndex = new AtomicInteger();
+                threadFactory = r -> {
+                    Thread thread = new Thread(r, "module-lifecycle-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+            }
+
+            // 并发数由调度器控制，线程不复用，每个模块任务运行在新线程上；线程池本身不设上限，并发上限是线程数的唯一约束
+            return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0L, TimeUnit.MILLISECONDS,
+                    new SynchronousQueue<>(), threadFactory);
+        }
+
+        // 初始化线程池 todo 根据后期改为从项目中获取
+        AtomicInteger threadIndex = new AtomicInteger();
+        return Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "module-lifecycle-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 通过反射创建虚拟线程工厂，保持对JDK 17的编译兼容
+     *
+     * @return 虚拟线程工厂，当前JVM不支持虚拟线程时返回null
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "module-lifecycle-virtual-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 关闭管理器，释放资源，最多等待关闭整体时限后中断仍在运行的任务
      */
     public void shutdown() {
+        shutdown(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeout));
+    }
+
+    /**
+     * 关闭管理器，在截止时间前等待线程池中的任务结束，到期后中断仍在运行的任务
+     *
+     * @param deadline 截止时间（纳秒）
+     */
+    private void shutdown(long deadline) {
+        timeoutExecutor.shutdownNow();
         executorService.shutdown();
         try {
-            if (!executorService.awaitTermination(30, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
+            if (!executorService.awaitTermination(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) {
+                List<Runnable> dropped = executorService.shutdownNow();
+                log.warn("Module lifecycle executor did not terminate within the shutdown timeout, "
+                        + "interrupted running tasks and dropped {} queued tasks", dropped.size());
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -159,236 +456,560 @@ public class ModuleLifecycleManager {
     }
 
     /**
-     * 为模块创建初始化Future
+     * 获取模块可复用的初始化Future，不存在时为模块及其依赖创建初始化Future，调用方需持有{@link #initializations}的锁；
+     * 新建的Future在released完成前不会调度模块，也不会发布任何通知，调用方释放锁后调用{@link #releaseInitializations}
      *
-     * @param module  要初始化的模块
-     * @param futures 已创建的Future集合
+     * @param module        要初始化的模块
+     * @param weights       模块关键路径权重
+     * @param queuedModules 收集新加入初始化的模块，释放锁后再通知监听器
+     * @param released      释放锁后完成，新建的Future由此开始执行
      * @return 初始化Future
      */
-    private CompletableFuture<Void> createModuleInitializationFuture(Module module, Map<String, CompletableFuture<Void>> futures) {
+    private CompletableFuture<Void> getOrCreateInitializationFuture(Module module, Map<String, Long> weights,
+                                                                    List<Module> queuedModules, CompletableFuture<Void> released) {
+        CompletableFuture<Void> future = findReusableInitializationFuture(module.getName());
+        if (future == null) {
+            future = createModuleInitializationFuture(module, weights, queuedModules, released);
+            initializations.put(module.getName(), future);
+        }
+        return future;
+    }
+
+    /**
+     * 查找模块可复用的初始化Future：进行中的Future，或结果与模块当前状态一致的已完成Future；
+     * 模块被重置为注册状态后不再复用之前的结果
+     *
+     * @param moduleName 模块名称
+     * @return 可复用的Future，不存在时返回null
+     */
+    private CompletableFuture<Void> findReusableInitializationFuture(String moduleName) {
+        CompletableFuture<Void> future = initializations.get(moduleName);
+        ModuleState state = registry.getModuleState(moduleName);
+
+        if (future == null) {
+            return state == ModuleState.READY ? CompletableFuture.completedFuture(null) : null;
+        }
+        if (!future.isDone()) {
+            return future;
+        }
+        if (future.isCompletedExceptionally()) {
+            return state == ModuleState.FAILED ? future : null;
+        }
+        return state == ModuleState.READY ? future : null;
+    }
+
+    /**
+     * 释放锁后通知监听器模块已加入初始化，再放行新建的初始化Future；
+     * 监听器和事件发布都不在{@link #initializations}的锁内执行，避免与在回调中初始化模块的线程互相等待
+     *
+     * @param queuedModules 新加入初始化的模块，依赖在前
+     * @param released      放行新建初始化Future的触发器
+     */
+    private void releaseInitializations(List<Module> queuedModules, CompletableFuture<Void> released) {
+        try {
+            for (Module module : queuedModules) {
+                fireLifecycleEvent(listener -> listener.onInitQueued(module));
+            }
+        } finally {
+            released.complete(null);
+        }
+    }
+
+    /**
+     * 为模块创建初始化Future，依赖模块复用已有的初始化Future
+     *
+     * @param module        要初始化的模块
+     * @param weights       模块关键路径权重
+     * @param queuedModules 收集新加入初始化的模块
+     * @param released      放行初始化的触发器
+     * @return 初始化Future，模块或其依赖初始化失败时异常完成
+     */
+    private CompletableFuture<Void> createModuleInitializationFuture(Module module, Map<String, Long> weights,
+                                                                     List<Module> queuedModules, CompletableFuture<Void> released) {
         Set<String> dependencies = module.getDependencies();
+        long weight = weights.getOrDefault(module.getName(), estimateInitDuration(module));
 
         if (dependencies.isEmpty()) {
-            return CompletableFuture.runAsync(() -> initializeModuleInternal(module), executorService);
+            queuedModules.add(module);
+            return released.thenCompose(v -> scheduleInitialization(module, weight));
         }
 
         // 创建依赖Future数组
         List<CompletableFuture<Void>> dependencyFutures = new ArrayList<>();
 
         for (String dependency : dependencies) {
-            if (futures.containsKey(dependency)) {
-                dependencyFutures.add(futures.get(dependency));
+            Module dependencyModule = registry.getModule(dependency);
+            if (dependencyModule != null) {
+                dependencyFutures.add(getOrCreateInitializationFuture(dependencyModule, weights, queuedModules, released));
             } else {
-                Module dependencyModule = registry.getModule(dependency);
-                if (dependencyModule != null) {
-                    CompletableFuture<Void> depFuture = createModuleInitializationFuture(dependencyModule, futures);
-                    futures.put(dependency, depFuture);
-                    dependencyFutures.add(depFuture);
-                } else {
-                    log.warn("Dependency [{}] for module [{}] not found", dependency, module.getName());
-                }
+                log.warn("Dependency [{}] for module [{}] not found", dependency, module.getName());
             }
         }
 
-        // 当所有依赖完成后，初始化当前模块
-        return CompletableFuture.allOf(dependencyFutures.toArray(new CompletableFuture[0]))
-                .thenRunAsync(() -> initializeModuleInternal(module), executorService);
+        queuedModules.add(module);
+
+        // 当所有依赖完成后，将当前模块放入调度队列；任一依赖失败时当前模块直接失败。
+        // 依赖已失败时失败处理也要等到放行后才执行，不在锁内发布事件
+        return released.thenCompose(v -> CompletableFuture.allOf(dependencyFutures.toArray(new CompletableFuture[0])))
+                .handle((result, ex) -> ex)
+                .thenCompose(ex -> ex == null
+                        ? scheduleInitialization(module, weight)
+                        : failOnDependency(module, ex));
     }
 
     /**
-     * 初始化模块内部实现
+     * 将模块放入调度队列等待初始化
      *
      * @param module 要初始化的模块
+     * @param weight 关键路径权重
+     * @return 初始化Future，在模块就绪、失败或超时时完成
      */
-    private void initializeModuleInternal(Module module) {
-        String moduleName = module.getName();
-        log.info("Starting initialization of module [{}]", moduleName);
+    private CompletableFuture<Void> scheduleInitialization(Module module, long weight) {
+        fireLifecycleEvent(listener -> listener.onDependenciesSatisfied(module));
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        scheduler.schedule(INIT_THREAD_PREFIX + module.getName(), weight, () -> initializeModuleInternal(module, result))
+                .whenComplete((v, ex) -> {
+                    if (ex != null) {
+                        result.completeExceptionally(ex);
+                    }
+                });
+        return result;
+    }
 
-        try {
-            ModuleState previousState = module.getState();
-            module.initialize();
-            ModuleState currentState = module.getState();
-
-            // 发布状态变更事件
-            publishStateChangeEvent(module, previousState, currentState);
-
-            // 如果模块初始化成功，发布就绪事件
-            if (currentState == ModuleState.READY) {
-                eventPublisher.publishEvent(new ModuleReadyEvent(module));
-                log.info("Module [{}] initialized successfully", moduleName);
-            } else if (currentState == ModuleState.FAILED) {
-                eventPublisher.publishEvent(new ModuleFailedEvent(module, null));
-                log.error("Module [{}] initialization failed", moduleName);
-            }
-        } catch (Exception e) {
-            module.setState(ModuleState.FAILED);
-            eventPublisher.publishEvent(new ModuleFailedEvent(module, e));
-            log.error("Module [{}] initialization failed with exception", moduleName, e);
-            throw e; // 重新抛出异常以通知CompletableFuture
+    /**
+     * 因依赖模块失败而将模块标记为失败，不再执行其初始化
+     *
+     * @param module 模块
+     * @param cause  依赖失败原因
+     * @return 异常完成的Future
+     */
+    private CompletableFuture<Void> failOnDependency(Module module, Throwable cause) {
+        Throwable rootCause = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+        ModuleState previousState = module.getState();
+
+        if (module.compareAndSetState(ModuleState.REGISTERED, ModuleState.FAILED)) {
+            publishStateChangeEvent(module, previousState, ModuleState.FAILED);
+            eventPublisher.publishEvent(new ModuleFailedEvent(module, rootCause));
+            log.error("Module [{}] failed because one of its dependencies failed: {}", module.getName(), rootCause.getMessage());
         }
+        fireLifecycleEvent(listener -> listener.onInitCompleted(module, 0L, rootCause));
+
+        return CompletableFuture.failedFuture(rootCause);
     }
 
     /**
-     * 发布模块状态变更事件
+     * 获取当前依赖图的关键路径权重，与注册中心缓存的依赖图一同缓存，模块注册或注销后重新计算
      *
-     * @param module        模块
-     * @param previousState 先前状态
-     * @param currentState  当前状态
+     * @return 模块名称到权重（毫秒）的映射
+     * @throws IllegalStateException 存在循环依赖时抛出
      */
-    private void publishStateChangeEvent(Module module, ModuleState previousState, ModuleState currentState) {
-        if (previousState != currentState) {
-            eventPublisher.publishEvent(new ModuleStateChangeEvent(module, previousState, currentState));
+    private Map<String, Long> getCriticalPathWeights() {
+        ModuleDependencyGraph graph = registry.getDependencyGraph();
+        CriticalPathPlan plan = criticalPathPlan;
+        if (plan != null && plan.graph() == graph) {
+            return plan.weights();
+        }
+
+        if (graph.hasCycles()) {
+            throw new IllegalStateException("Circular dependencies detected: " + graph.describeCycles());
         }
+        plan = new CriticalPathPlan(graph, Collections.unmodifiableMap(computeCriticalPathWeights(graph.getSortedModules())));
+        criticalPathPlan = plan;
+        return plan.weights();
     }
 
     /**
-     * 按依赖关系排序模块
+     * 计算模块的关键路径权重，即从该模块出发到所有下游模块就绪为止最长链路的预估耗时
      *
-     * @return 排序后的模块列表
+     * @param sortedModules 按拓扑顺序排列的模块列表
+     * @return 模块名称到权重（毫秒）的映射
      */
-    private List<Module> sortModulesByDependencies() {
-        List<Module> modules = new ArrayList<>(registry.getAllModules());
+    private Map<String, Long> computeCriticalPathWeights(List<Module> sortedModules) {
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (Module module : sortedModules) {
+            for (String dep : module.getDependencies()) {
+                dependents.computeIfAbsent(dep, k -> new ArrayList<>()).add(module.getName());
+            }
+        }
 
-        // 按order排序，数值小的排在前面
-        modules.sort(Comparator.comparingInt(Module::getOrder));
+        // 逆拓扑顺序遍历，下游模块的权重总是先于上游模块计算
+        Map<String, Long> weights = new HashMap<>();
+        for (int i = sortedModules.size() - 1; i >= 0; i--) {
+            Module module = sortedModules.get(i);
+            long downstream = 0;
+            for (String dependent : dependents.getOrDefault(module.getName(), Collections.emptyList())) {
+                downstream = Math.max(downstream, weights.getOrDefault(dependent, 0L));
+            }
+            weights.put(module.getName(), estimateInitDuration(module) + downstream);
+        }
 
-        // 检查循环依赖
-        checkForCircularDependencies(modules);
+        return weights;
+    }
 
-        // 拓扑排序
-        return topologicalSort(modules);
+    /**
+     * 估算模块初始化耗时，优先使用记录值，其次使用声明值
+     *
+     * @param module 模块
+     * @return 预估耗时（毫秒）
+     */
+    private long estimateInitDuration(Module module) {
+        long recorded = durationStore.getDuration(module.getName());
+        if (recorded > 0) {
+            return recorded;
+        }
+
+        long declared = module.getExpectedInitTime();
+        return declared > 0 ? declared : DEFAULT_INIT_DURATION;
     }
 
     /**
-     * 检查模块间是否存在循环依赖
+     * 初始化模块内部实现，在调度线程上启动模块的异步初始化，
+     * 同步部分结束后即释放调度线程，异步部分完成时再处理初始化结果
      *
-     * @param modules 模块列表
+     * @param module 要初始化的模块
+     * @param result 初始化结果Future
      */
-    private void checkForCircularDependencies(List<Module> modules) {
-        Map<String, Module> moduleMap = modules.stream()
-                .collect(Collectors.toMap(Module::getName, module -> module));
+    private void initializeModuleInternal(Module module, CompletableFuture<Void> result) {
+        log.info("Starting initialization of module [{}]", module.getName());
 
-        for (Module module : modules) {
-            Set<String> visited = new HashSet<>();
-            Set<String> recursionStack = new HashSet<>();
+        ModuleState previousState = module.getState();
+        InitTimeoutGuard guard = new InitTimeoutGuard(Thread.currentThread());
+        long startTime = System.nanoTime();
+        fireLifecycleEvent(listener -> listener.onInitStarted(module));
+        ScheduledFuture<?> timeoutTask = scheduleInitTimeout(module, previousState, guard, startTime, result);
+        CompletionStage<Void> stage;
 
-            if (hasCycleDFS(module.getName(), moduleMap, visited, recursionStack)) {
-                throw new IllegalStateException("Circular dependency detected involving module: " + module.getName());
-            }
+        try {
+            stage = module.initializeAsync();
+        } catch (Exception e) {
+            stage = CompletableFuture.failedFuture(e);
+        } finally {
+            guard.detach();
         }
+        guard.attachStage(stage);
+
+        stage.whenComplete((v, ex) -> {
+            if (timeoutTask != null) {
+                timeoutTask.cancel(false);
+            }
+            Throwable failure = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            completeInitialization(module, previousState, guard, startTime, failure, result);
+        });
     }
 
     /**
-     * 使用深度优先搜索检测循环依赖
+     * 处理模块初始化结果，发布事件并完成初始化结果Future
      *
-     * @param moduleName     当前模块名
-     * @param moduleMap      模块映射
-     * @param visited        已访问模块集合
-     * @param recursionStack 递归栈
-     * @return 是否存在循环
+     * @param module        模块
+     * @param previousState 初始化前的状态
+     * @param guard         本次初始化的超时控制
+     * @param startTime     初始化开始时间（纳秒）
+     * @param failure       初始化异常，成功时为null
+     * @param result        初始化结果Future
      */
-    private boolean hasCycleDFS(String moduleName,
-                                Map<String, Module> moduleMap,
-                                Set<String> visited,
-                                Set<String> recursionStack) {
-        if (recursionStack.contains(moduleName)) {
-            return true;
+    private void completeInitialization(Module module,
+                                        ModuleState previousState,
+                                        InitTimeoutGuard guard,
+                                        long startTime,
+                                        Throwable failure,
+                                        CompletableFuture<Void> result) {
+        String moduleName = module.getName();
+
+        if (!guard.finish()) {
+            // 超时处理已将模块标记为失败并发布事件，迟到的初始化结果不能覆盖失败状态和失败原因
+            module.markFailed(failure);
+            log.warn("Module [{}] returned from initialization after it timed out", moduleName);
+            return;
         }
 
-        if (visited.contains(moduleName)) {
-            return false;
+        long duration = System.nanoTime() - startTime;
+        Throwable completionFailure = failure != null ? failure
+                : module.getState() == ModuleState.FAILED ? module.getFailureCause() : null;
+        fireLifecycleEvent(listener -> listener.onInitCompleted(module, duration, completionFailure));
+
+        if (failure != null) {
+            module.markFailed(failure);
+            publishStateChangeEvent(module, previousState, ModuleState.FAILED);
+            eventPublisher.publishEvent(new ModuleFailedEvent(module, failure));
+            log.error("Module [{}] initialization failed with exception", moduleName, failure);
+            result.completeExceptionally(failure);
+            return;
         }
 
-        Module module = moduleMap.get(moduleName);
-        if (module == null) {
-            return false;
+        ModuleState currentState = module.getState();
+
+        if (currentState == ModuleState.READY && previousState != ModuleState.READY) {
+            durationStore.record(moduleName, TimeUnit.NANOSECONDS.toMillis(duration));
         }
 
-        visited.add(moduleName);
-        recursionStack.add(moduleName);
+        // 发布状态变更事件
+        publishStateChangeEvent(module, previousState, currentState);
+
+        // 如果模块初始化成功，发布就绪事件
+        if (currentState == ModuleState.READY) {
+            eventPublisher.publishEvent(new ModuleReadyEvent(module));
+            log.info("Module [{}] initialized successfully in {} ms", moduleName, TimeUnit.NANOSECONDS.toMillis(duration));
+            result.complete(null);
+        } else if (currentState == ModuleState.FAILED) {
+            Throwable cause = module.getFailureCause();
+            eventPublisher.publishEvent(new ModuleFailedEvent(module, cause));
+            log.error("Module [{}] initialization failed", moduleName);
+            result.completeExceptionally(cause != null
+                    ? cause
+                    : new IllegalStateException("Module [" + moduleName + "] initialization failed"));
+        } else {
+            result.complete(null);
+        }
+    }
 
-        for (String dep : module.getDependencies()) {
-            if (hasCycleDFS(dep, moduleMap, visited, recursionStack)) {
-                return true;
-            }
+    /**
+     * 按模块声明的超时时间注册超时处理，超时后中断初始化线程、将模块标记为失败并记录超时异常，再取消异步初始化
+     *
+     * @param module        模块
+     * @param previousState 初始化前的状态
+     * @param guard         本次初始化的超时控制
+     * @param startTime     初始化开始时间（纳秒）
+     * @param result        初始化结果Future
+     * @return 超时任务，模块未声明超时时间时返回null
+     */
+    private ScheduledFuture<?> scheduleInitTimeout(Module module,
+                                                   ModuleState previousState,
+                                                   InitTimeoutGuard guard,
+                                                   long startTime,
+                                                   CompletableFuture<Void> result) {
+        long timeout = module.getInitTimeout();
+        if (timeout <= 0) {
+            return null;
         }
 
-        recursionStack.remove(moduleName);
-        return false;
+        return timeoutExecutor.schedule(() -> {
+            if (!guard.timeout()) {
+                return;
+            }
+
+            TimeoutException cause = new TimeoutException(
+                    "Module [" + module.getName() + "] initialization timed out after " + timeout + " ms");
+            module.markFailed(cause);
+            fireLifecycleEvent(listener -> listener.onInitCompleted(module, System.nanoTime() - startTime, cause));
+            publishStateChangeEvent(module, previousState, ModuleState.FAILED);
+            eventPublisher.publishEvent(new ModuleFailedEvent(module, cause));
+            log.error("Module [{}] initialization timed out after {} ms, init thread interrupted", module.getName(), timeout);
+            result.completeExceptionally(cause);
+            guard.cancelStage();
+        }, timeout, TimeUnit.MILLISECONDS);
     }
 
     /**
-     * 对模块进行拓扑排序
+     * 回调所有模块生命周期监听器，监听器异常不影响模块生命周期
      *
-     * @param modules 模块列表
-     * @return 排序后的模块列表
+     * @param callback 回调逻辑
      */
-    private List<Module> topologicalSort(List<Module> modules) {
-        Map<String, Module> moduleMap = modules.stream()
-                .collect(Collectors.toMap(Module::getName, module -> module));
+    private void fireLifecycleEvent(Consumer<ModuleLifecycleListener> callback) {
+        for (ModuleLifecycleListener listener : lifecycleListeners) {
+            try {
+                callback.accept(listener);
+            } catch (Exception e) {
+                log.error("Module lifecycle listener failed", e);
+            }
+        }
+    }
 
-        Map<String, Set<String>> graph = new HashMap<>();
-        Map<String, Integer> inDegree = new HashMap<>();
+    /**
+     * 发布模块状态变更事件
+     *
+     * @param module        模块
+     * @param previousState 先前状态
+     * @param currentState  当前状态
+     */
+    private void publishStateChangeEvent(Module module, ModuleState previousState, ModuleState currentState) {
+        if (previousState != currentState) {
+            eventPublisher.publishEvent(new ModuleStateChangeEvent(module, previousState, currentState));
+        }
+    }
 
-        // 构建图和入度表
-        for (Module module : modules) {
-            String moduleName = module.getName();
-            graph.put(moduleName, new HashSet<>());
-            inDegree.put(moduleName, 0);
+    /**
+     * 按依赖关系排序模块，依赖图分析结果由注册中心缓存
+     *
+     * @return 排序后的模块列表
+     * @throws IllegalStateException 存在循环依赖时抛出，异常信息包含全部循环依赖的环路
+     */
+    private List<Module> sortModulesByDependencies() {
+        ModuleDependencyGraph graph = registry.getDependencyGraph();
+        if (graph.hasCycles()) {
+            throw new IllegalStateException("Circular dependencies detected: " + graph.describeCycles());
         }
+        return graph.getSortedModules();
+    }
 
-        // 填充图和入度表
-        for (Module module : modules) {
+    /**
+     * 按依赖关系逆序并行销毁所有模块，模块在依赖它的模块全部销毁（或超时）后才开始销毁，
+     * 互不依赖的模块在生命周期线程池上同时销毁；单个模块超过时限时中断其销毁线程，
+     * 整个过程（包括关闭线程池）不超过整体时限，到期后中断仍在运行的任务
+     */
+    @PreDestroy
+    public void destroy() {
+        List<Module> modules = sortModulesForDestruction();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeout);
+        Map<String, List<CompletableFuture<Void>>> dependentFutures = new HashMap<>();
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+
+        // 逆拓扑顺序遍历，依赖当前模块的模块总是先创建Future
+        for (int i = modules.size() - 1; i >= 0; i--) {
+            Module module = modules.get(i);
             String moduleName = module.getName();
+            List<CompletableFuture<Void>> dependents = dependentFutures.getOrDefault(moduleName, Collections.emptyList());
+
+            CompletableFuture<Void> future = CompletableFuture.allOf(dependents.toArray(new CompletableFuture[0]))
+                    .handle((result, ex) -> null)
+                    .thenCompose(v -> destroyModuleAsync(module, remainingDestroyTime(deadline)))
+                    .whenComplete((result, ex) -> {
+                        if (ex == null) {
+                            log.info("Module [{}] destroyed successfully", moduleName);
+                        } else {
+                            log.error("Module [{}] destroying failed", moduleName, ex);
+                        }
+                    });
+
+            futures.put(moduleName, future);
             for (String dep : module.getDependencies()) {
-                if (moduleMap.containsKey(dep)) {
-                    graph.get(dep).add(moduleName);
-                    inDegree.put(moduleName, inDegree.get(moduleName) + 1);
-                }
+                dependentFutures.computeIfAbsent(dep, k -> new ArrayList<>()).add(future);
             }
         }
 
-        // 拓扑排序
-        Queue<String> queue = new LinkedList<>();
-        for (Map.Entry<String, Integer> entry : inDegree.entrySet()) {
-            if (entry.getValue() == 0) {
-                queue.add(entry.getKey());
+        try {
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+                    .get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Module destruction interrupted");
+        } catch (ExecutionException e) {
+            log.error("Module destruction failed", e.getCause());
+        } catch (TimeoutException e) {
+            List<String> pending = futures.entrySet().stream()
+                    .filter(entry -> !entry.getValue().isDone())
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            log.error("Module destruction exceeded shutdown timeout of {} ms, modules not destroyed: {}", shutdownTimeout, pending);
+        }
+        shutdown(deadline);
+    }
+
+    /**
+     * 计算单个模块的销毁时限，不超过整体时限的剩余时间
+     *
+     * @param deadline 整体截止时间（纳秒）
+     * @return 销毁时限（毫秒）
+     */
+    private long remainingDestroyTime(long deadline) {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        return Math.max(Math.min(destroyTimeout, remaining), 1L);
+    }
+
+    /**
+     * 获取按依赖关系排序的待销毁模块，存在循环依赖时同一环路中的模块相邻排列；
+     * 模块只等待在列表中排在其后的依赖方，因此即使存在循环依赖也不会互相等待
+     *
+     * @return 按拓扑顺序排列的模块列表
+     */
+    private List<Module> sortModulesForDestruction() {
+        ModuleDependencyGraph graph = registry.getDependencyGraph();
+        if (graph.hasCycles()) {
+            log.warn("Destroying modules with circular dependencies: {}", graph.describeCycles());
+        }
+        return graph.getSortedModules();
+    }
+
+    /**
+     * 依赖图及按其计算的关键路径权重
+     */
+    private record CriticalPathPlan(ModuleDependencyGraph graph, Map<String, Long> weights) {
+    }
+
+    /**
+     * 单次模块初始化的超时控制，保证超时中断只作用于仍在同步执行该次初始化的线程
+     */
+    private static final class InitTimeoutGuard {
+
+        private final Thread initThread;
+        private CompletionStage<?> stage;
+        private boolean attached = true;
+        private boolean finished;
+        private boolean timedOut;
+
+        private InitTimeoutGuard(Thread initThread) {
+            this.initThread = initThread;
+        }
+
+        /**
+         * 标记超时，初始化线程仍在执行同步部分时中断该线程
+         *
+         * @return 初始化尚未结束时返回true
+         */
+        private synchronized boolean timeout() {
+            if (finished) {
+                return false;
             }
+            timedOut = true;
+            if (attached) {
+                initThread.interrupt();
+            }
+            return true;
         }
 
-        List<String> topOrder = new ArrayList<>();
-        while (!queue.isEmpty()) {
-            String moduleName = queue.poll();
-            topOrder.add(moduleName);
+        /**
+         * 标记初始化的同步部分结束，之后超时不再中断初始化线程；已超时时清除超时处理设置的中断标记
+         */
+        private synchronized void detach() {
+            attached = false;
+            if (timedOut) {
+                Thread.interrupted();
+            }
+        }
 
-            for (String dependent : graph.get(moduleName)) {
-                inDegree.put(dependent, inDegree.get(dependent) - 1);
-                if (inDegree.get(dependent) == 0) {
-                    queue.add(dependent);
+        /**
+         * 记录初始化的异步部分，已超时时立即取消
+         *
+         * @param stage 模块返回的异步初始化
+         */
+        private void attachStage(CompletionStage<?> stage) {
+            synchronized (this) {
+                this.stage = stage;
+                if (!timedOut) {
+                    return;
                 }
             }
+            cancel(stage);
         }
 
-        if (topOrder.size() != modules.size()) {
-            throw new IllegalStateException("Cyclic dependency detected");
+        /**
+         * 超时后取消初始化的异步部分，异步部分尚未返回时由{@link #attachStage(CompletionStage)}取消
+         */
+        private void cancelStage() {
+            CompletionStage<?> current;
+            synchronized (this) {
+                current = stage;
+            }
+            if (current != null) {
+                cancel(current);
+            }
         }
 
-        // 按照拓扑顺序返回模块
-        return topOrder.stream()
-                .map(moduleMap::get)
-                .collect(Collectors.toList());
-    }
-
-    @PreDestroy
-    public void destroy() {
-        for (Module module : registry.getAllModules()) {
-            boolean destroyed = destroyModule(module.getName());
-            if (destroyed) {
-                log.info("Module [{}] destroyed successfully", module.getName());
-            } else {
-                log.error("Module [{}] destroying failed", module.getName());
+        private static void cancel(CompletionStage<?> stage) {
+            try {
+                stage.toCompletableFuture().cancel(true);
+            } catch (UnsupportedOperationException e) {
+                // 不支持转换为CompletableFuture的CompletionStage无法取消，由模块自行结束
             }
         }
-        shutdown();
+
+        /**
+         * 标记初始化结束
+         *
+         * @return 未超时返回true
+         */
+        private synchronized boolean finish() {
+            finished = true;
+            return !timedOut;
+        }
     }
-} 
\ No newline at end of file
+}
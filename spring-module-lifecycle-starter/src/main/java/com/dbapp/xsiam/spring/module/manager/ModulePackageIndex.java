@@ -0,0 +1,126 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import com.dbapp.xsiam.spring.module.Module;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模块包路径索引，按包名分段构建的前缀树，查找时返回最具体（最长前缀）匹配的模块
+ * <p>
+ * 索引创建后不可修改，模块注册或注销时由注册中心整体重建；按类查找的结果缓存在索引实例中，随索引一起失效
+ */
+public final class ModulePackageIndex {
+
+    /**
+     * 空索引
+     */
+    public static final ModulePackageIndex EMPTY = new ModulePackageIndex(new Node());
+
+    private static final Object NO_MODULE = new Object();
+
+    private final Node root;
+    private final Map<Class<?>, Object> classCache = new ConcurrentHashMap<>();
+
+    private ModulePackageIndex(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * 根据模块集合构建索引，多个模块声明相同基础包时，初始化顺序靠前的模块优先，其次按名称
+     *
+     * @param modules 模块集合
+     * @return 包路径索引
+     */
+    public static ModulePackageIndex build(Collection<Module> modules) {
+        List<Module> sortedModules = new ArrayList<>(modules);
+        sortedModules.sort(Comparator.comparingInt(Module::getOrder).thenComparing(Module::getName));
+
+        Node root = new Node();
+        for (Module module : sortedModules) {
+            for (String basePackage : module.getBasePackages()) {
+                if (basePackage == null) {
+                    continue;
+                }
+                Node node = root;
+                for (String segment : segments(basePackage)) {
+                    node = node.children.computeIfAbsent(segment, k -> new Node());
+                }
+                if (node.module == null) {
+                    node.module = module;
+                }
+            }
+        }
+
+        return new ModulePackageIndex(root);
+    }
+
+    /**
+     * 查找包路径所属的模块
+     *
+     * @param packageName 包路径
+     * @return 最具体匹配的模块，如果没有匹配则返回null
+     */
+    public Module find(String packageName) {
+        Node node = root;
+        Module match = root.module;
+        int start = 0;
+        int length = packageName.length();
+
+        while (start < length) {
+            int end = packageName.indexOf('.', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.children.get(packageName.substring(start, end));
+            if (node == null) {
+                break;
+            }
+            if (node.module != null) {
+                match = node.module;
+            }
+            start = end + 1;
+        }
+
+        return match;
+    }
+
+    /**
+     * 查找类所在包所属的模块，结果按类缓存
+     *
+     * @param clazz 类
+     * @return 最具体匹配的模块，如果没有匹配则返回null
+     */
+    public Module findByClass(Class<?> clazz) {
+        Object cached = classCache.computeIfAbsent(clazz, c -> {
+            Module module = find(ClassUtils.getPackageName(c));
+            return module != null ? module : NO_MODULE;
+        });
+        return cached != NO_MODULE ? (Module) cached : null;
+    }
+
+    private static List<String> segments(String packageName) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : packageName.split("\\.")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * 前缀树节点，构建完成后不再修改
+     */
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private Module module;
+    }
+}
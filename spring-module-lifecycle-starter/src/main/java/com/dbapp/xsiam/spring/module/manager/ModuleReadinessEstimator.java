@@ -0,0 +1,172 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.enums.ModuleState;
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模块就绪时间估算器，根据初始化进度、已初始化时长和历史初始化耗时估算模块距离就绪的剩余时间
+ * <p>
+ * 模块状态或注册信息变化时，按注册中心缓存的拓扑顺序一次遍历算出每个模块的预计就绪时刻（绝对时间），
+ * 尚未开始初始化的模块在其依赖中最晚就绪的时刻之后开始计时；进度变化只修正该模块自身的预计就绪时刻。
+ * 查询只读取缓存的就绪时刻，与依赖图的规模无关
+ */
+public class ModuleReadinessEstimator {
+
+    /**
+     * 已就绪和无法估算就绪时刻的标记
+     */
+    private static final long READY = Long.MIN_VALUE + 1;
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final ModuleRegistry registry;
+    private final ModuleInitDurationStore durationStore;
+    private final Map<String, Long> initStartTimes = new ConcurrentHashMap<>();
+
+    /**
+     * 模块名称到预计就绪时刻（System.nanoTime）的映射，已就绪为{@link #READY}，无法估算为{@link #UNKNOWN}；
+     * 重新估算时整体替换，进度变化时原地修正单个模块
+     */
+    private volatile Map<String, Long> readyTimes = new ConcurrentHashMap<>();
+
+    /**
+     * 估算结果的版本，每次按状态或注册信息重新估算后递增
+     */
+    private volatile long version;
+
+    /**
+     * 构造函数
+     *
+     * @param registry      模块注册中心
+     * @param durationStore 模块初始化耗时记录
+     */
+    public ModuleReadinessEstimator(ModuleRegistry registry, ModuleInitDurationStore durationStore) {
+        Assert.notNull(registry, "ModuleRegistry must not be null");
+        Assert.notNull(durationStore, "ModuleInitDurationStore must not be null");
+        this.registry = registry;
+        this.durationStore = durationStore;
+        registry.addStateListener((module, previousState, currentState) -> {
+            if (currentState == ModuleState.INITIALIZING) {
+                initStartTimes.put(module.getName(), System.nanoTime());
+            } else {
+                initStartTimes.remove(module.getName());
+            }
+            recompute();
+        });
+        registry.addProgressListener((module, progress) -> updateProgress(module));
+        registry.addRegistrationListener(this::recompute);
+        recompute();
+    }
+
+    /**
+     * 估算模块距离就绪的剩余时间，尚未开始初始化的模块会计入依赖模块的剩余时间
+     *
+     * @param moduleName 模块名称
+     * @return 剩余时间（毫秒），已就绪返回0，无法估算（未注册、已失败或缺少依据）时返回-1
+     */
+    public long estimateTimeToReady(String moduleName) {
+        Long readyTime = readyTimes.get(moduleName);
+        if (readyTime == null || readyTime == UNKNOWN) {
+            return -1;
+        }
+        if (readyTime == READY) {
+            return 0;
+        }
+        return Math.max(TimeUnit.NANOSECONDS.toMillis(readyTime - System.nanoTime()), 0);
+    }
+
+    /**
+     * 获取估算结果的版本，调用方可据此判断按估算结果缓存的数据是否需要更新；进度变化不改变版本
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取模块已初始化的时长
+     *
+     * @param moduleName 模块名称
+     * @return 已初始化时长（毫秒），模块不在初始化中时返回-1
+     */
+    public long getInitElapsedTime(String moduleName) {
+        Long startTime = initStartTimes.get(moduleName);
+        return startTime != null ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) : -1;
+    }
+
+    /**
+     * 按拓扑顺序重新估算所有模块的就绪时刻，每个模块只计算一次，依赖总是先于依赖方计算；
+     * 循环依赖中的模块取不到依赖的结果，视为无法估算
+     */
+    private synchronized void recompute() {
+        long now = System.nanoTime();
+        Map<String, Long> times = new ConcurrentHashMap<>();
+        for (Module module : registry.getDependencyGraph().getSortedModules()) {
+            times.put(module.getName(), estimateReadyTime(module, times, now));
+        }
+        readyTimes = times;
+        version++;
+    }
+
+    private long estimateReadyTime(Module module, Map<String, Long> times, long now) {
+        switch (module.getState()) {
+            case READY:
+                return READY;
+            case INITIALIZING:
+                long remaining = estimateRemainingInitTime(module);
+                return remaining >= 0 ? now + TimeUnit.MILLISECONDS.toNanos(remaining) : UNKNOWN;
+            case REGISTERED:
+                // 等待依赖模块就绪后才开始初始化
+                long dependencyReadyTime = now;
+                for (String dependency : module.getDependencies()) {
+                    Long time = times.get(dependency);
+                    if (time == null || time == UNKNOWN) {
+                        return UNKNOWN;
+                    }
+                    if (time != READY) {
+                        dependencyReadyTime = Math.max(dependencyReadyTime, time);
+                    }
+                }
+                return dependencyReadyTime + TimeUnit.MILLISECONDS.toNanos(getExpectedInitTime(module));
+            default:
+                return UNKNOWN;
+        }
+    }
+
+    /**
+     * 按最新进度修正正在初始化的模块自身的就绪时刻，依赖它的模块在下一次状态变化时更新
+     *
+     * @param module 进度变化的模块
+     */
+    private synchronized void updateProgress(Module module) {
+        if (module.getState() != ModuleState.INITIALIZING || !readyTimes.containsKey(module.getName())) {
+            return;
+        }
+        long remaining = estimateRemainingInitTime(module);
+        readyTimes.put(module.getName(), remaining >= 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(remaining) : UNKNOWN);
+    }
+
+    private long estimateRemainingInitTime(Module module) {
+        long elapsed = Math.max(getInitElapsedTime(module.getName()), 0);
+        long expected = getExpectedInitTime(module);
+        double progress = module.getProgress();
+
+        long byHistory = expected > 0 ? Math.max(expected - elapsed, 0) : -1;
+        long byProgress = progress > 0.0 && progress < 1.0 ? (long) (elapsed * (1.0 - progress) / progress) : -1;
+
+        if (byHistory >= 0 && byProgress >= 0) {
+            return (byHistory + byProgress) / 2;
+        }
+        return byHistory >= 0 ? byHistory : byProgress;
+    }
+
+    private long getExpectedInitTime(Module module) {
+        long recorded = durationStore.getDuration(module.getName());
+        return recorded > 0 ? recorded : module.getExpectedInitTime();
+    }
+}
@@ -2,13 +2,23 @@ package com.dbapp.xsiam.spring.module.manager;
 
 import com.dbapp.xsiam.spring.module.Module;
 import com.dbapp.xsiam.spring.module.enums.ModuleState;
+import com.dbapp.xsiam.spring.module.event.ModuleProgressListener;
+import com.dbapp.xsiam.spring.module.event.ModuleStateListener;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 模块注册中心，管理所有模块的注册信息
@@ -17,29 +27,65 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ModuleRegistry {
 
     private final Map<String, Module> modules = new ConcurrentHashMap<>();
+    private final List<Runnable> registrationListeners = new CopyOnWriteArrayList<>();
+    private volatile ModulePackageIndex packageIndex = ModulePackageIndex.EMPTY;
+    private volatile ModuleDependencyGraph dependencyGraph;
+    private final Map<String, Integer> moduleIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextModuleId = new AtomicInteger();
+    private final Object readinessMonitor = new Object();
+    private volatile ModuleBitSet readiness = ModuleBitSet.EMPTY;
+    private final List<ModuleStateListener> stateListeners = new CopyOnWriteArrayList<>();
+    private final ModuleStateListener readinessListener = this::onModuleStateChange;
+    private final List<ModuleProgressListener> progressListeners = new CopyOnWriteArrayList<>();
+    private final ModuleProgressListener progressListener = this::onModuleProgressChange;
 
     /**
-     * 注册模块
+     * 等待模块就绪的Future，由自身保护；Future被取消或以异常完成时移出，列表为空时移除名称
+     */
+    private final Map<String, List<CompletableFuture<Module>>> readyWaiters = new HashMap<>();
+
+    /**
+     * 注册模块，已注册的同名模块将被替换
      *
      * @param module 要注册的模块
-     * @return 注册成功返回true，否则返回false
+     * @return 注册成功返回true，模块正在初始化时拒绝注册并返回false
      */
     public boolean registerModule(Module module) {
         Assert.notNull(module, "Module must not be null");
         String moduleName = module.getName();
+        Module existing = modules.get(moduleName);
 
-        if (modules.containsKey(moduleName)) {
-            log.warn("Module [{}] already registered, will be replaced", moduleName);
+        // 先挂载监听器再变更状态，注册引起的状态变更同样通知注册中心的监听器
+        module.removeStateListener(readinessListener);
+        module.addStateListener(readinessListener);
+        module.removeProgressListener(progressListener);
+        module.addProgressListener(progressListener);
+        if (!transitionToRegistered(module)) {
+            if (existing != module) {
+                module.removeStateListener(readinessListener);
+                module.removeProgressListener(progressListener);
+            }
+            log.warn("Module [{}] is initializing and cannot be registered again until initialization finishes", moduleName);
+            return false;
         }
 
+        if (existing != null && existing != module) {
+            log.warn("Module [{}] already registered, will be replaced", moduleName);
+            existing.removeStateListener(readinessListener);
+            existing.removeProgressListener(progressListener);
+        }
         modules.put(moduleName, module);
-        module.setState(ModuleState.REGISTERED);
+        updateReadiness(moduleName);
         log.info("Module [{}] registered successfully", moduleName);
+        fireRegistrationChanged();
         return true;
     }
 
     /**
      * 注销模块
+     * <p>
+     * 先变更为UNREGISTERED状态再移出注册表：状态变更通知使等待该模块就绪的Future以异常完成，
+     * 此期间仍能查到模块的{@link #whenReady(String)}调用立即失败；移出之后的调用等待同名模块重新注册，不受本次注销影响
      *
      * @param moduleName 要注销的模块名称
      * @return 注销的模块，如果不存在则返回null
@@ -47,16 +93,60 @@ public class ModuleRegistry {
     public Module unregisterModule(String moduleName) {
         Assert.hasText(moduleName, "Module name must not be empty");
 
-        Module module = modules.remove(moduleName);
-        if (module != null) {
-            log.info("Module [{}] unregistered", moduleName);
-        } else {
+        Module module = modules.get(moduleName);
+        if (module == null) {
             log.warn("Module [{}] not found, cannot unregister", moduleName);
+            return null;
         }
 
+        transitionToUnregistered(module);
+        // 只移出本次注销的模块实例；并发注销已将其移出，或期间已被同名模块替换时不再处理
+        if (!modules.remove(moduleName, module)) {
+            return null;
+        }
+        module.removeStateListener(readinessListener);
+        module.removeProgressListener(progressListener);
+        updateReadiness(moduleName);
+        log.info("Module [{}] unregistered", moduleName);
+        fireRegistrationChanged();
         return module;
     }
 
+    /**
+     * 将模块变更为已注册状态，与初始化线程并发变更时以CAS重试
+     *
+     * @param module 模块
+     * @return false如果模块正在初始化
+     */
+    private static boolean transitionToRegistered(Module module) {
+        while (true) {
+            ModuleState state = module.getState();
+            if (state == ModuleState.REGISTERED) {
+                return true;
+            }
+            if (state == ModuleState.INITIALIZING) {
+                return false;
+            }
+            if (module.compareAndSetState(state, ModuleState.REGISTERED)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 将模块变更为未注册状态，任何状态都可以注销，与其他线程并发变更时以CAS重试
+     *
+     * @param module 模块
+     */
+    private static void transitionToUnregistered(Module module) {
+        ModuleState state;
+        while ((state = module.getState()) != ModuleState.UNREGISTERED) {
+            if (module.compareAndSetState(state, ModuleState.UNREGISTERED)) {
+                return;
+            }
+        }
+    }
+
     /**
      * 获取模块
      *
@@ -97,26 +187,172 @@ public class ModuleRegistry {
         return getModuleState(moduleName).isReady();
     }
 
+    /**
+     * 等待模块就绪，模块当前已就绪时返回已完成的Future；模块尚未注册时等待其注册并就绪。
+     * 名称可能永远不会注册时，应使用{@link #whenReady(String, Duration)}或自行取消Future，取消后不再占用注册中心的资源
+     *
+     * @param moduleName 模块名称
+     * @return 模块就绪后以该模块完成的Future，模块初始化失败或被注销时以{@link IllegalStateException}异常完成
+     */
+    public CompletableFuture<Module> whenReady(String moduleName) {
+        Assert.hasText(moduleName, "Module name must not be empty");
+        CompletableFuture<Module> future = new CompletableFuture<>();
+        synchronized (readyWaiters) {
+            // 状态在登记前读取，状态变更通知在同一把锁内取走等待者，检查与登记之间不会漏掉状态变更；
+            // 取走后在锁外完成，等待者的回调不会在锁内执行
+            Module module = modules.get(moduleName);
+            ModuleState state = module != null ? module.getState() : null;
+            if (state == ModuleState.READY) {
+                return CompletableFuture.completedFuture(module);
+            }
+            if (state == ModuleState.FAILED || state == ModuleState.UNREGISTERED) {
+                // 已失败或正在注销的模块不会就绪
+                return CompletableFuture.failedFuture(notReady(module, state));
+            }
+            readyWaiters.computeIfAbsent(moduleName, k -> new ArrayList<>()).add(future);
+        }
+        future.whenComplete((module, ex) -> {
+            if (ex != null) {
+                removeReadyWaiter(moduleName, future);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 在时限内等待模块就绪
+     *
+     * @param moduleName 模块名称
+     * @param timeout    等待时限
+     * @return 模块就绪后以该模块完成的Future，超时以{@link java.util.concurrent.TimeoutException}异常完成，
+     * 模块初始化失败或被注销时以{@link IllegalStateException}异常完成
+     */
+    public CompletableFuture<Module> whenReady(String moduleName, Duration timeout) {
+        Assert.notNull(timeout, "Timeout must not be null");
+        return whenReady(moduleName).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 等待全部模块就绪，任一模块初始化失败或被注销时立即以异常完成；
+     * 返回的Future以异常完成（包括被取消或超时）时取消尚未完成的单个模块等待
+     *
+     * @param moduleNames 模块名称
+     * @return 全部模块就绪后完成的Future
+     */
+    public CompletableFuture<Void> whenAllReady(String... moduleNames) {
+        Assert.notNull(moduleNames, "Module names must not be null");
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[moduleNames.length];
+        for (int i = 0; i < moduleNames.length; i++) {
+            futures[i] = whenReady(moduleNames[i]);
+        }
+
+        CompletableFuture<Void> result = CompletableFuture.allOf(futures);
+        for (CompletableFuture<?> future : futures) {
+            future.whenComplete((module, ex) -> {
+                if (ex != null) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        }
+        result.whenComplete((ignored, ex) -> {
+            if (ex != null) {
+                for (CompletableFuture<?> future : futures) {
+                    future.cancel(false);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 获取模块编号，编号从0开始连续分配，同名模块注销后重新注册时编号不变
+     *
+     * @param moduleName 模块名称
+     * @return 模块编号
+     */
+    public int getModuleId(String moduleName) {
+        Assert.hasText(moduleName, "Module name must not be empty");
+        return moduleIds.computeIfAbsent(moduleName, k -> nextModuleId.getAndIncrement());
+    }
+
+    /**
+     * 获取就绪模块快照，每次模块状态变更后整体替换，快照本身不可修改
+     *
+     * @return 就绪模块集合
+     */
+    public ModuleBitSet getReadinessSnapshot() {
+        return readiness;
+    }
+
+    /**
+     * 创建一组模块的掩码，可以预先创建并缓存，用于{@link #areModulesReady(ModuleBitSet)}
+     *
+     * @param moduleNames 模块名称，可以包含尚未注册的模块
+     * @return 模块掩码
+     */
+    public ModuleBitSet createModuleMask(String... moduleNames) {
+        ModuleBitSet mask = ModuleBitSet.EMPTY;
+        for (String moduleName : moduleNames) {
+            mask = mask.with(getModuleId(moduleName), true);
+        }
+        return mask;
+    }
+
+    /**
+     * 判断掩码中的模块是否全部就绪，只读取一次就绪快照
+     *
+     * @param mask 由{@link #createModuleMask(String...)}创建的模块掩码
+     * @return true如果全部就绪
+     */
+    public boolean areModulesReady(ModuleBitSet mask) {
+        return readiness.containsAll(mask);
+    }
+
     /**
      * 检查指定包路径是否属于某个模块
      *
      * @param packageName 包路径
-     * @return 匹配的模块，如果没有匹配则返回null
+     * @return 基础包最具体匹配的模块，如果没有匹配则返回null
      */
     public Module findModuleByPackage(String packageName) {
         if (packageName == null || packageName.isEmpty()) {
             return null;
         }
 
-        for (Module module : getAllModules()) {
-            for (String basePackage : module.getBasePackages()) {
-                if (packageName.startsWith(basePackage)) {
-                    return module;
+        return packageIndex.find(packageName);
+    }
+
+    /**
+     * 检查指定类所在的包是否属于某个模块，结果按类缓存直到模块注册信息变化
+     *
+     * @param clazz 类
+     * @return 基础包最具体匹配的模块，如果没有匹配则返回null
+     */
+    public Module findModuleByClass(Class<?> clazz) {
+        if (clazz == null) {
+            return null;
+        }
+
+        return packageIndex.findByClass(clazz);
+    }
+
+    /**
+     * 获取模块依赖图分析结果，首次调用时构建，缓存到模块注册信息变化为止
+     *
+     * @return 依赖图分析结果
+     */
+    public ModuleDependencyGraph getDependencyGraph() {
+        ModuleDependencyGraph graph = dependencyGraph;
+        if (graph == null) {
+            synchronized (this) {
+                graph = dependencyGraph;
+                if (graph == null) {
+                    graph = ModuleDependencyGraph.build(modules.values());
+                    this.dependencyGraph = graph;
                 }
             }
         }
-
-        return null;
+        return graph;
     }
 
     /**
@@ -137,4 +373,133 @@ public class ModuleRegistry {
     public boolean containsModule(String moduleName) {
         return modules.containsKey(moduleName);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 添加模块注册监听器，在模块注册或注销后回调
+     *
+     * @param listener 监听器
+     */
+    public void addRegistrationListener(Runnable listener) {
+        Assert.notNull(listener, "Listener must not be null");
+        registrationListeners.add(listener);
+    }
+
+    /**
+     * 添加模块状态监听器，接收所有已注册模块的状态变更
+     *
+     * @param listener 监听器
+     */
+    public void addStateListener(ModuleStateListener listener) {
+        Assert.notNull(listener, "Listener must not be null");
+        stateListeners.add(listener);
+    }
+
+    /**
+     * 添加模块进度监听器，接收所有已注册模块的进度变化
+     *
+     * @param listener 监听器
+     */
+    public void addProgressListener(ModuleProgressListener listener) {
+        Assert.notNull(listener, "Listener must not be null");
+        progressListeners.add(listener);
+    }
+
+    private void onModuleProgressChange(Module module, double progress) {
+        for (ModuleProgressListener listener : progressListeners) {
+            try {
+                listener.onProgressChange(module, progress);
+            } catch (Exception e) {
+                log.error("Module progress listener failed", e);
+            }
+        }
+    }
+
+    private void onModuleStateChange(Module module, ModuleState previousState, ModuleState currentState) {
+        updateReadiness(module.getName());
+        completeReadyWaiters(module, currentState);
+        for (ModuleStateListener listener : stateListeners) {
+            try {
+                listener.onStateChange(module, previousState, currentState);
+            } catch (Exception e) {
+                log.error("Module state listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * 模块进入终态时完成等待其就绪的Future，在锁内取走等待者，在锁外完成
+     *
+     * @param module       发生状态变更的模块
+     * @param currentState 变更后的状态
+     */
+    private void completeReadyWaiters(Module module, ModuleState currentState) {
+        if (currentState != ModuleState.READY && currentState != ModuleState.FAILED
+                && currentState != ModuleState.UNREGISTERED) {
+            return;
+        }
+
+        List<CompletableFuture<Module>> waiters;
+        synchronized (readyWaiters) {
+            waiters = readyWaiters.remove(module.getName());
+        }
+        if (waiters == null) {
+            return;
+        }
+
+        Throwable failure = currentState != ModuleState.READY ? notReady(module, currentState) : null;
+        for (CompletableFuture<Module> waiter : waiters) {
+            if (failure == null) {
+                waiter.complete(module);
+            } else {
+                waiter.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private void removeReadyWaiter(String moduleName, CompletableFuture<Module> future) {
+        synchronized (readyWaiters) {
+            List<CompletableFuture<Module>> waiters = readyWaiters.get(moduleName);
+            if (waiters != null && waiters.remove(future) && waiters.isEmpty()) {
+                readyWaiters.remove(moduleName);
+            }
+        }
+    }
+
+    private static IllegalStateException notReady(Module module, ModuleState state) {
+        return new IllegalStateException("Module [" + module.getName() + "] will not become ready, current state: " + state,
+                state == ModuleState.FAILED ? module.getFailureCause() : null);
+    }
+
+    /**
+     * 按模块当前状态更新就绪快照，在锁内读取状态，保证并发变更时快照与最后一次变更一致
+     *
+     * @param moduleName 模块名称
+     */
+    private void updateReadiness(String moduleName) {
+        int moduleId = getModuleId(moduleName);
+        synchronized (readinessMonitor) {
+            Module module = modules.get(moduleName);
+            boolean ready = module != null && module.getState().isReady();
+            this.readiness = readiness.with(moduleId, ready);
+        }
+    }
+
+    private void fireRegistrationChanged() {
+        rebuildPackageIndex();
+        for (Runnable listener : registrationListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                log.error("Module registration listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * 重建包路径索引并废弃依赖图缓存，写时复制，查找方始终读取完整的不可变索引
+     */
+    private synchronized void rebuildPackageIndex() {
+        this.packageIndex = ModulePackageIndex.build(modules.values());
+        this.dependencyGraph = null;
+    }
+}
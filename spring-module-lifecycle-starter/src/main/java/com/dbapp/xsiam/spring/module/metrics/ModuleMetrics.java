@@ -0,0 +1,170 @@
+package com.dbapp.xsiam.spring.module.metrics;
+
+import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.enums.ModuleGateOutcome;
+import com.dbapp.xsiam.spring.module.enums.ModuleState;
+import com.dbapp.xsiam.spring.module.event.ModuleLifecycleListener;
+import com.dbapp.xsiam.spring.module.manager.ModuleRegistry;
+import com.dbapp.xsiam.spring.module.web.ModuleGateListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模块指标，发布以下指标，均带有module标签：
+ * <ul>
+ *     <li>module.init / module.destroy：初始化和销毁耗时，outcome标签区分成功和失败</li>
+ *     <li>module.state：模块状态序号，模块不存在时为NaN</li>
+ *     <li>module.progress：模块初始化进度</li>
+ *     <li>module.gate.requests：拦截器放行、拒绝、暂存和限流的请求数，outcome标签区分处理结果</li>
+ *     <li>module.readiness：模块从开始初始化到结束初始化的长任务计时</li>
+ * </ul>
+ * 只能绑定到一个MeterRegistry，存在多个注册表时应绑定到组合注册表，缓存的计数器都属于该注册表
+ */
+@Slf4j
+public class ModuleMetrics implements MeterBinder, ModuleLifecycleListener, ModuleGateListener {
+
+    private static final String TAG_MODULE = "module";
+    private static final String TAG_OUTCOME = "outcome";
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_FAILURE = "failure";
+
+    private final ModuleRegistry moduleRegistry;
+    private final Map<String, Counter[]> gateCounters = new ConcurrentHashMap<>();
+    private final Map<String, LongTaskTimer.Sample> readinessSamples = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * 构造函数
+     *
+     * @param moduleRegistry 模块注册中心
+     */
+    public ModuleMetrics(ModuleRegistry moduleRegistry) {
+        Assert.notNull(moduleRegistry, "ModuleRegistry must not be null");
+        this.moduleRegistry = moduleRegistry;
+    }
+
+    /**
+     * 绑定到指标注册表，重复绑定同一注册表时只补注册仪表
+     *
+     * @param registry 指标注册表
+     * @throws IllegalStateException 已绑定到其他注册表时抛出
+     */
+    @Override
+    public synchronized void bindTo(@NonNull MeterRegistry registry) {
+        MeterRegistry boundRegistry = this.meterRegistry;
+        if (boundRegistry != null && boundRegistry != registry) {
+            throw new IllegalStateException("ModuleMetrics is already bound to " + boundRegistry
+                    + ", bind it once to a composite registry instead of " + registry);
+        }
+        this.meterRegistry = registry;
+        if (boundRegistry == null) {
+            moduleRegistry.addRegistrationListener(this::bindModuleGauges);
+            moduleRegistry.addStateListener(this::onStateChange);
+        }
+        bindModuleGauges();
+    }
+
+    /**
+     * 为所有已注册模块注册状态和进度仪表，同名仪表只会注册一次
+     */
+    private void bindModuleGauges() {
+        MeterRegistry registry = this.meterRegistry;
+        for (Module module : moduleRegistry.getAllModules()) {
+            String moduleName = module.getName();
+            Gauge.builder("module.state", moduleRegistry, r -> {
+                        Module current = r.getModule(moduleName);
+                        return current != null ? current.getState().ordinal() : Double.NaN;
+                    })
+                    .description("Module state ordinal")
+                    .tag(TAG_MODULE, moduleName)
+                    .register(registry);
+            Gauge.builder("module.progress", moduleRegistry, r -> {
+                        Module current = r.getModule(moduleName);
+                        return current != null ? current.getProgress() : Double.NaN;
+                    })
+                    .description("Module initialization progress")
+                    .tag(TAG_MODULE, moduleName)
+                    .register(registry);
+        }
+    }
+
+    private void onStateChange(Module module, ModuleState previousState, ModuleState currentState) {
+        MeterRegistry registry = this.meterRegistry;
+        String moduleName = module.getName();
+        if (currentState == ModuleState.INITIALIZING) {
+            LongTaskTimer.Sample sample = LongTaskTimer.builder("module.readiness")
+                    .description("Time modules spend initializing before becoming ready or failing")
+                    .tag(TAG_MODULE, moduleName)
+                    .register(registry)
+                    .start();
+            LongTaskTimer.Sample previous = readinessSamples.put(moduleName, sample);
+            if (previous != null) {
+                previous.stop();
+            }
+        } else if (previousState == ModuleState.INITIALIZING) {
+            LongTaskTimer.Sample sample = readinessSamples.remove(moduleName);
+            if (sample != null) {
+                sample.stop();
+            }
+        }
+    }
+
+    @Override
+    public void onInitCompleted(Module module, long durationNanos, Throwable failure) {
+        record("module.init", "Module initialization time", module, durationNanos, failure);
+    }
+
+    @Override
+    public void onDestroyCompleted(Module module, long durationNanos, Throwable failure) {
+        record("module.destroy", "Module destruction time", module, durationNanos, failure);
+    }
+
+    private void record(String name, String description, Module module, long durationNanos, Throwable failure) {
+        MeterRegistry registry = this.meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        Timer.builder(name)
+                .description(description)
+                .tag(TAG_MODULE, module.getName())
+                .tag(TAG_OUTCOME, failure == null ? OUTCOME_SUCCESS : OUTCOME_FAILURE)
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onGateDecision(String moduleName, ModuleGateOutcome outcome, HttpServletRequest request) {
+        MeterRegistry registry = this.meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        Counter[] counters = gateCounters.computeIfAbsent(moduleName, k -> createGateCounters(registry, k));
+        counters[outcome.ordinal()].increment();
+    }
+
+    private static Counter[] createGateCounters(MeterRegistry registry, String moduleName) {
+        ModuleGateOutcome[] outcomes = ModuleGateOutcome.values();
+        Counter[] counters = new Counter[outcomes.length];
+        for (ModuleGateOutcome outcome : outcomes) {
+            counters[outcome.ordinal()] = Counter.builder("module.gate.requests")
+                    .description("Requests to module controllers handled by the module interceptor")
+                    .tag(TAG_MODULE, moduleName)
+                    .tag(TAG_OUTCOME, outcome.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,65 @@
+package com.dbapp.xsiam.spring.module.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 模块舱壁，限制同一模块同时处理的请求数，避免单个模块占满Servlet线程而影响其他模块
+ * <p>
+ * 许可计数为无锁的CAS计数器，获取和释放许可都不会阻塞；限流响应体在创建时预先序列化
+ */
+final class ModuleBulkhead {
+
+    private final int maxConcurrentRequests;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final byte[] rejectedBody;
+
+    /**
+     * 构造函数
+     *
+     * @param moduleName            模块名称
+     * @param maxConcurrentRequests 最大并发请求数，不大于0表示不限制
+     */
+    ModuleBulkhead(String moduleName, int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.rejectedBody = ("{\"error\":\"Too many concurrent requests, please try again later.\""
+                + ",\"module\":\"" + ModuleInterceptor.escapeJson(moduleName) + "\""
+                + ",\"maxConcurrentRequests\":" + maxConcurrentRequests + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 判断是否限制并发请求数
+     *
+     * @return true如果限制
+     */
+    boolean isLimited() {
+        return maxConcurrentRequests > 0;
+    }
+
+    /**
+     * 尝试获取一个许可
+     *
+     * @return true如果获取成功，并发请求数已达上限时返回false
+     */
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= maxConcurrentRequests) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * 释放一个许可
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    byte[] getRejectedBody() {
+        return rejectedBody;
+    }
+}
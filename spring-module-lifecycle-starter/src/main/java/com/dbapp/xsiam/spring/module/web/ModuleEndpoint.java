@@ -2,15 +2,22 @@ package com.dbapp.xsiam.spring.module.web;
 
 import com.dbapp.xsiam.spring.module.Module;
 import com.dbapp.xsiam.spring.module.enums.ModuleState;
+import com.dbapp.xsiam.spring.module.manager.ModuleEventHistory;
+import com.dbapp.xsiam.spring.module.manager.ModuleInitTimeline;
 import com.dbapp.xsiam.spring.module.manager.ModuleLifecycleManager;
 import com.dbapp.xsiam.spring.module.manager.ModuleRegistry;
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
 import org.springframework.boot.actuate.endpoint.annotation.Selector;
 import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -21,24 +28,45 @@ public class ModuleEndpoint {
 
     private final ModuleRegistry registry;
     private final ModuleLifecycleManager lifecycleManager;
+    private ModuleEventHistory eventHistory;
 
     public ModuleEndpoint(ModuleRegistry registry, ModuleLifecycleManager lifecycleManager) {
         this.registry = registry;
         this.lifecycleManager = lifecycleManager;
     }
 
+    /**
+     * 设置模块事件历史，设置后可按序号增量获取模块状态变更
+     *
+     * @param eventHistory 模块事件历史，可为null
+     */
+    public void setEventHistory(ModuleEventHistory eventHistory) {
+        this.eventHistory = eventHistory;
+    }
+
     /**
      * 获取所有模块的信息
      *
+     * @param since 已获取的最后一条状态变更的序号，指定时返回此后的全部状态变更
      * @return 模块信息映射
      */
     @ReadOperation
-    public Map<String, Object> modules() {
+    public Map<String, Object> modules(@Nullable Long since) {
         Map<String, Object> result = new HashMap<>();
 
         result.put("modules", registry.getAllModules().stream()
                 .map(this::moduleToMap)
                 .collect(Collectors.toList()));
+        result.put("timeline", timelineToMap(lifecycleManager.getInitTimeline()));
+        if (eventHistory != null) {
+            result.put("lastSequence", eventHistory.getLastSequence());
+            if (since != null) {
+                result.put("oldestSequence", eventHistory.getOldestSequence());
+                result.put("events", eventHistory.replay(since).stream()
+                        .map(this::eventToMap)
+                        .collect(Collectors.toList()));
+            }
+        }
 
         return result;
     }
@@ -82,6 +110,80 @@ public class ModuleEndpoint {
         }
     }
 
+    /**
+     * 将初始化时间线转换为Map，时间均为相对时间线起点的毫秒数
+     *
+     * @param timeline 初始化时间线
+     * @return 包含各模块时间线、关键路径和空闲时段的Map
+     */
+    private Map<String, Object> timelineToMap(ModuleInitTimeline timeline) {
+        long origin = timeline.getStartTime();
+        Map<String, Object> map = new LinkedHashMap<>();
+
+        long end = origin;
+        List<Map<String, Object>> modules = new ArrayList<>();
+        for (ModuleInitTimeline.Entry entry : timeline.getEntries()) {
+            Map<String, Object> moduleMap = new LinkedHashMap<>();
+            moduleMap.put("name", entry.getName());
+            moduleMap.put("queued", offset(origin, entry.getQueuedAt()));
+            moduleMap.put("dependenciesSatisfied", offset(origin, entry.getDependenciesSatisfiedAt()));
+            moduleMap.put("started", offset(origin, entry.getStartedAt()));
+            moduleMap.put("ended", offset(origin, entry.getEndedAt()));
+            moduleMap.put("waitForDependencies", elapsed(entry.getQueuedAt(), entry.getDependenciesSatisfiedAt()));
+            moduleMap.put("waitForThread", elapsed(entry.getDependenciesSatisfiedAt(), entry.getStartedAt()));
+            moduleMap.put("duration", elapsed(entry.getStartedAt(), entry.getEndedAt()));
+            if (entry.getFailure() != null) {
+                moduleMap.put("failure", entry.getFailure());
+            }
+            modules.add(moduleMap);
+            end = Math.max(end, entry.getEndedAt());
+        }
+
+        List<Map<String, Object>> idleGaps = new ArrayList<>();
+        for (ModuleInitTimeline.IdleGap gap : timeline.getIdleGaps(lifecycleManager.getConcurrency())) {
+            Map<String, Object> gapMap = new LinkedHashMap<>();
+            gapMap.put("start", offset(origin, gap.getStart()));
+            gapMap.put("end", offset(origin, gap.getEnd()));
+            gapMap.put("duration", gap.getDurationMillis());
+            gapMap.put("idleThreads", gap.getIdleThreads());
+            idleGaps.add(gapMap);
+        }
+
+        map.put("totalTime", TimeUnit.NANOSECONDS.toMillis(end - origin));
+        map.put("concurrency", lifecycleManager.getConcurrency());
+        map.put("criticalPath", timeline.getCriticalPath());
+        map.put("modules", modules);
+        map.put("idleGaps", idleGaps);
+        return map;
+    }
+
+    private static Long offset(long origin, long time) {
+        return time != 0 ? TimeUnit.NANOSECONDS.toMillis(time - origin) : null;
+    }
+
+    private static Long elapsed(long from, long to) {
+        return from != 0 && to != 0 ? TimeUnit.NANOSECONDS.toMillis(to - from) : null;
+    }
+
+    /**
+     * 将模块状态变更记录转换为Map
+     *
+     * @param entry 状态变更记录
+     * @return 包含序号、时间、模块和状态的Map
+     */
+    private Map<String, Object> eventToMap(ModuleEventHistory.Entry entry) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("sequence", entry.getSequence());
+        map.put("timestamp", entry.getTimestamp());
+        map.put("module", entry.getModuleName());
+        map.put("previousState", entry.getPreviousState().name());
+        map.put("currentState", entry.getCurrentState().name());
+        if (entry.getFailure() != null) {
+            map.put("failure", entry.getFailure());
+        }
+        return map;
+    }
+
     /**
      * 将模块对象转换为Map
      *
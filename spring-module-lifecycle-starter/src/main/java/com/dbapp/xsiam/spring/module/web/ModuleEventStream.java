@@ -0,0 +1,328 @@
+package com.dbapp.xsiam.spring.module.web;
+
+import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.event.ModuleFailedEvent;
+import com.dbapp.xsiam.spring.module.event.ModuleProgressEvent;
+import com.dbapp.xsiam.spring.module.event.ModuleReadyEvent;
+import com.dbapp.xsiam.spring.module.event.ModuleStateChangeEvent;
+import com.dbapp.xsiam.spring.module.manager.ModuleRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 模块事件流，将模块状态变更、就绪、失败和进度变化以Server-Sent Events推送给所有订阅者
+ * <p>
+ * 每个订阅者有独立的有界缓冲区，由共享的发送线程池逐个订阅者发送，慢速订阅者不会阻塞事件发布方和其他订阅者：
+ * <ul>
+ *     <li>进度变化按模块合并，只发送最新的进度</li>
+ *     <li>缓冲区满时丢弃全部积压事件，改为发送一次最新的快照</li>
+ *     <li>连接建立后首先发送快照，此后只发送增量事件</li>
+ * </ul>
+ */
+@Slf4j
+public class ModuleEventStream {
+
+    public static final String EVENT_SNAPSHOT = "snapshot";
+    public static final String EVENT_STATE = "state";
+    public static final String EVENT_READY = "ready";
+    public static final String EVENT_FAILED = "failed";
+    public static final String EVENT_PROGRESS = "progress";
+
+    private static final int SENDER_THREADS = 2;
+
+    private final ModuleRegistry moduleRegistry;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeout;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService sender;
+
+    /**
+     * 构造函数
+     *
+     * @param moduleRegistry 模块注册中心
+     * @param bufferSize     每个订阅者最多积压的事件数，不含已合并的进度
+     * @param maxSubscribers 最大订阅者数量
+     * @param timeout        连接超时时间（毫秒），超时后客户端需要重新连接，0表示不超时
+     */
+    public ModuleEventStream(ModuleRegistry moduleRegistry, int bufferSize, int maxSubscribers, long timeout) {
+        Assert.notNull(moduleRegistry, "ModuleRegistry must not be null");
+        Assert.isTrue(bufferSize > 0, "Buffer size must be positive");
+        Assert.isTrue(maxSubscribers > 0, "Max subscribers must be positive");
+        Assert.isTrue(timeout >= 0, "Timeout must not be negative");
+        this.moduleRegistry = moduleRegistry;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(SENDER_THREADS, r -> {
+            Thread thread = new Thread(r, "module-event-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 订阅模块事件，连接建立后首先收到全部模块的快照
+     *
+     * @return SSE发送器，订阅者数量已达上限时返回null
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter);
+
+        synchronized (subscribers) {
+            if (subscribers.size() >= maxSubscribers) {
+                log.warn("Module event stream reached {} subscribers, rejecting new subscriber", maxSubscribers);
+                return null;
+            }
+            subscribers.add(subscriber);
+        }
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.schedule();
+        return emitter;
+    }
+
+    /**
+     * 获取当前订阅者数量
+     *
+     * @return 订阅者数量
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onModuleStateChange(ModuleStateChangeEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("module", event.getModule().getName());
+        data.put("previousState", event.getPreviousState().name());
+        data.put("currentState", event.getCurrentState().name());
+        publish(new StreamEvent(EVENT_STATE, event.getModule().getName(), data));
+    }
+
+    @EventListener
+    public void onModuleReady(ModuleReadyEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("module", event.getModule().getName());
+        data.put("version", event.getModule().getVersion());
+        publish(new StreamEvent(EVENT_READY, event.getModule().getName(), data));
+    }
+
+    @EventListener
+    public void onModuleFailed(ModuleFailedEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("module", event.getModule().getName());
+        Throwable cause = event.getCause();
+        data.put("error", cause != null ? String.valueOf(cause.getMessage()) : null);
+        publish(new StreamEvent(EVENT_FAILED, event.getModule().getName(), data));
+    }
+
+    @EventListener
+    public void onModuleProgress(ModuleProgressEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("module", event.getModule().getName());
+        data.put("progress", event.getProgress());
+        StreamEvent streamEvent = new StreamEvent(EVENT_PROGRESS, event.getModule().getName(), data);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offerProgress(streamEvent);
+        }
+    }
+
+    private void publish(StreamEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * 构建全部模块的快照
+     *
+     * @return 快照数据
+     */
+    private Map<String, Object> createSnapshot() {
+        List<Map<String, Object>> modules = new ArrayList<>();
+        for (Module module : moduleRegistry.getAllModules()) {
+            Map<String, Object> moduleInfo = new LinkedHashMap<>();
+            moduleInfo.put("module", module.getName());
+            moduleInfo.put("version", module.getVersion());
+            moduleInfo.put("state", module.getState().name());
+            moduleInfo.put("progress", module.getProgress());
+            moduleInfo.put("lazy", module.isLazy());
+            modules.add(moduleInfo);
+        }
+        return Map.of("modules", modules);
+    }
+
+    /**
+     * 关闭事件流，结束所有订阅
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        sender.shutdownNow();
+    }
+
+    /**
+     * 推送给订阅者的事件，所有订阅者共享同一实例
+     */
+    private record StreamEvent(String name, String moduleName, Object data) {
+    }
+
+    /**
+     * 单个订阅者，以下字段均由订阅者自身保护，同一时刻最多只有一个发送任务
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<StreamEvent> queue = new ArrayDeque<>();
+        private final Map<String, StreamEvent> pendingProgress = new LinkedHashMap<>();
+        private boolean snapshotRequired = true;
+        private boolean scheduled;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(StreamEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (!snapshotRequired) {
+                    // 先发出同一模块尚未发送的进度，保证单个模块的事件顺序
+                    StreamEvent progress = pendingProgress.remove(event.moduleName());
+                    if (progress != null) {
+                        queue.add(progress);
+                    }
+                    if (queue.size() >= bufferSize) {
+                        log.debug("Module event stream subscriber is too slow, replacing {} buffered events with a snapshot",
+                                queue.size());
+                        snapshotRequired = true;
+                        queue.clear();
+                        pendingProgress.clear();
+                    } else {
+                        queue.add(event);
+                    }
+                }
+            }
+            schedule();
+        }
+
+        private void offerProgress(StreamEvent event) {
+            synchronized (this) {
+                if (closed || snapshotRequired) {
+                    return;
+                }
+                pendingProgress.put(event.moduleName(), event);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (scheduled || closed) {
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close(null);
+            }
+        }
+
+        /**
+         * 发送积压的事件直到缓冲区为空，快照在发送时构建，构建前积压的事件已包含在快照中而被丢弃
+         */
+        private void drain() {
+            while (true) {
+                String name;
+                Object data;
+                synchronized (this) {
+                    if (closed) {
+                        return;
+                    }
+                    if (snapshotRequired) {
+                        snapshotRequired = false;
+                        queue.clear();
+                        pendingProgress.clear();
+                        name = EVENT_SNAPSHOT;
+                        data = null;
+                    } else {
+                        StreamEvent event = queue.poll();
+                        if (event == null) {
+                            Iterator<StreamEvent> progress = pendingProgress.values().iterator();
+                            if (progress.hasNext()) {
+                                event = progress.next();
+                                progress.remove();
+                            }
+                        }
+                        if (event == null) {
+                            scheduled = false;
+                            return;
+                        }
+                        name = event.name();
+                        data = event.data();
+                    }
+                }
+
+                try {
+                    emitter.send(SseEmitter.event()
+                            .name(name)
+                            .data(data != null ? data : createSnapshot()));
+                } catch (IOException | IllegalStateException e) {
+                    close(e);
+                    return;
+                }
+            }
+        }
+
+        private void close(Throwable cause) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                queue.clear();
+                pendingProgress.clear();
+            }
+            subscribers.remove(this);
+            log.debug("Module event stream subscriber disconnected: {}", cause != null ? cause.getMessage() : "shutdown");
+            if (cause != null) {
+                emitter.completeWithError(cause);
+            } else {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.dbapp.xsiam.spring.module.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 模块事件流控制器，路径由module.lifecycle.event-stream-path配置，默认为/modules/events
+ * <p>
+ * Actuator端点不支持流式响应，因此事件流以普通控制器的形式提供，不受管理端点的暴露和安全配置约束，
+ * 只在显式开启module.lifecycle.event-stream-enabled时注册，路径的访问控制由应用负责
+ */
+@RestController
+public class ModuleEventStreamController {
+
+    private final ModuleEventStream moduleEventStream;
+
+    public ModuleEventStreamController(ModuleEventStream moduleEventStream) {
+        this.moduleEventStream = moduleEventStream;
+    }
+
+    /**
+     * 订阅模块事件
+     *
+     * @return SSE发送器
+     */
+    @GetMapping(path = "${module.lifecycle.event-stream-path:/modules/events}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events() {
+        SseEmitter emitter = moduleEventStream.subscribe();
+        if (emitter == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many module event stream subscribers");
+        }
+        return emitter;
+    }
+}
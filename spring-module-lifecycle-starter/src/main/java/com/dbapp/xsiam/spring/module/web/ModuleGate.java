@@ -0,0 +1,62 @@
+package com.dbapp.xsiam.spring.module.web;
+
+import com.dbapp.xsiam.spring.module.Module;
+
+/**
+ * 控制器方法的模块门禁信息，在请求映射注册时预先解析，请求时只需读取模块状态
+ */
+public final class ModuleGate {
+
+    private final Class<?> beanType;
+    private final String moduleName;
+    private final Module module;
+
+    /**
+     * 构造函数
+     *
+     * @param beanType   控制器类型
+     * @param moduleName 控制器所属模块名称，为null表示不属于任何模块
+     * @param module     模块实例，模块尚未注册时为null
+     */
+    ModuleGate(Class<?> beanType, String moduleName, Module module) {
+        this.beanType = beanType;
+        this.moduleName = moduleName;
+        this.module = module;
+    }
+
+    /**
+     * 获取控制器类型
+     *
+     * @return 控制器类型
+     */
+    public Class<?> getBeanType() {
+        return beanType;
+    }
+
+    /**
+     * 获取控制器所属模块名称
+     *
+     * @return 模块名称，不属于任何模块时返回null
+     */
+    public String getModuleName() {
+        return moduleName;
+    }
+
+    /**
+     * 获取控制器所属模块
+     *
+     * @return 模块实例，不属于任何模块或模块尚未注册时返回null
+     */
+    public Module getModule() {
+        return module;
+    }
+
+    /**
+     * 判断请求是否可以通过，不属于任何模块或模块已就绪时可以通过
+     *
+     * @return true如果请求可以通过
+     */
+    public boolean isOpen() {
+        return moduleName == null || (module != null && module.getState().isReady());
+    }
+}
@@ -0,0 +1,21 @@
+package com.dbapp.xsiam.spring.module.web;
+
+import com.dbapp.xsiam.spring.module.enums.ModuleGateOutcome;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * 模块拦截器监听器，在{@link ModuleInterceptor}对访问模块的请求作出处理后同步回调，
+ * 不属于任何模块的请求不会回调；暂存的请求重新分派后会再次回调
+ */
+@FunctionalInterface
+public interface ModuleGateListener {
+
+    /**
+     * 请求处理结果回调
+     *
+     * @param moduleName 请求访问的模块名称
+     * @param outcome    处理结果
+     * @param request    请求
+     */
+    void onGateDecision(String moduleName, ModuleGateOutcome outcome, HttpServletRequest request);
+}
@@ -2,28 +2,79 @@ package com.dbapp.xsiam.spring.module.web;
 
 import com.dbapp.xsiam.spring.module.Module;
 import com.dbapp.xsiam.spring.module.annotation.ModuleController;
+import com.dbapp.xsiam.spring.module.enums.ModuleGateOutcome;
+import com.dbapp.xsiam.spring.module.enums.ModuleState;
+import com.dbapp.xsiam.spring.module.manager.ModuleInitDurationStore;
+import com.dbapp.xsiam.spring.module.manager.ModuleLifecycleManager;
+import com.dbapp.xsiam.spring.module.manager.ModuleReadinessEstimator;
 import com.dbapp.xsiam.spring.module.manager.ModuleRegistry;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 import org.springframework.web.method.HandlerMethod;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * 模块拦截器，用于拦截未就绪模块的接口调用
+ * 模块拦截器，用于拦截未就绪模块的接口调用，并限制已就绪模块的并发请求数
  */
 @Slf4j
-public class ModuleInterceptor implements HandlerInterceptor {
+public class ModuleInterceptor implements AsyncHandlerInterceptor {
+
+    /**
+     * 无法估算就绪时间时建议的重试间隔（秒）
+     */
+    private static final long DEFAULT_RETRY_AFTER_SECONDS = 5;
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    /**
+     * 记录请求已获取的模块舱壁许可的请求属性
+     */
+    private static final String BULKHEAD_ATTRIBUTE = ModuleInterceptor.class.getName() + ".BULKHEAD";
+
+    /**
+     * 标记请求已通过拦截器并开始异步处理的请求属性，异步处理结束后的重新分派直接放行
+     */
+    private static final String ASYNC_ADMITTED_ATTRIBUTE = ModuleInterceptor.class.getName() + ".ASYNC_ADMITTED";
 
     private final ModuleRegistry moduleRegistry;
+    private final ModuleReadinessEstimator moduleReadinessEstimator;
+    private final Map<String, NotReadyResponse> notReadyResponses = new ConcurrentHashMap<>();
+    private final List<ModuleGateListener> gateListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, ModuleBulkhead> bulkheads = new ConcurrentHashMap<>();
+    private Map<String, Integer> maxConcurrentRequests = Collections.emptyMap();
     private ModuleRequestMappingHandlerMapping moduleRequestMappingHandlerMapping;
+    private ModuleRequestParker moduleRequestParker;
+    private boolean requestParkingEnabled = true;
+    private ModuleLifecycleManager moduleLifecycleManager;
 
     public ModuleInterceptor(ModuleRegistry moduleRegistry) {
+        this(moduleRegistry, new ModuleReadinessEstimator(moduleRegistry, new ModuleInitDurationStore()));
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param moduleRegistry           模块注册中心
+     * @param moduleReadinessEstimator 模块就绪时间估算器，用于计算Retry-After
+     */
+    public ModuleInterceptor(ModuleRegistry moduleRegistry, ModuleReadinessEstimator moduleReadinessEstimator) {
         this.moduleRegistry = moduleRegistry;
+        this.moduleReadinessEstimator = moduleReadinessEstimator;
     }
 
     /**
@@ -35,6 +86,54 @@ public class ModuleInterceptor implements HandlerInterceptor {
         this.moduleRequestMappingHandlerMapping = moduleRequestMappingHandlerMapping;
     }
 
+    /**
+     * 设置模块请求暂存器，设置后模块未就绪时先暂存请求，暂存失败时才直接拒绝
+     *
+     * @param moduleRequestParker 模块请求暂存器
+     */
+    public void setModuleRequestParker(ModuleRequestParker moduleRequestParker) {
+        this.moduleRequestParker = moduleRequestParker;
+    }
+
+    /**
+     * 设置是否暂存访问未就绪模块的请求，关闭后只有延迟初始化模块的请求会被暂存
+     *
+     * @param requestParkingEnabled 是否暂存请求
+     */
+    public void setRequestParkingEnabled(boolean requestParkingEnabled) {
+        this.requestParkingEnabled = requestParkingEnabled;
+    }
+
+    /**
+     * 设置模块生命周期管理器，用于在首次请求时初始化延迟模块
+     *
+     * @param moduleLifecycleManager 模块生命周期管理器
+     */
+    public void setModuleLifecycleManager(ModuleLifecycleManager moduleLifecycleManager) {
+        this.moduleLifecycleManager = moduleLifecycleManager;
+    }
+
+    /**
+     * 设置各模块的最大并发请求数，优先于{@link ModuleController#maxConcurrentRequests()}
+     *
+     * @param maxConcurrentRequests 模块名称到最大并发请求数的映射，不大于0表示不限制
+     */
+    public void setMaxConcurrentRequests(Map<String, Integer> maxConcurrentRequests) {
+        Assert.notNull(maxConcurrentRequests, "Max concurrent requests must not be null");
+        this.maxConcurrentRequests = Map.copyOf(maxConcurrentRequests);
+        this.bulkheads.clear();
+    }
+
+    /**
+     * 添加拦截器监听器，在放行、拒绝、暂存或限流模块请求后回调
+     *
+     * @param listener 监听器
+     */
+    public void addModuleGateListener(ModuleGateListener listener) {
+        Assert.notNull(listener, "Listener must not be null");
+        gateListeners.add(listener);
+    }
+
     @Override
     public boolean preHandle(@NonNull HttpServletRequest request,
                              @NonNull HttpServletResponse response,
@@ -42,8 +141,183 @@ public class ModuleInterceptor implements HandlerInterceptor {
         if (!(handler instanceof HandlerMethod handlerMethod)) {
             return true;
         }
+        // 异步处理已完成，重新分派只用于写出结果，不再经过门禁和舱壁，也不重复回调监听器
+        if (request.getDispatcherType() == DispatcherType.ASYNC && request.getAttribute(ASYNC_ADMITTED_ATTRIBUTE) != null) {
+            return true;
+        }
+
+        String moduleName;
+        Module module = null;
+
+        // 优先使用映射注册时预先解析的门禁
+        ModuleGate gate = moduleRequestMappingHandlerMapping != null
+                ? moduleRequestMappingHandlerMapping.getModuleGate(handlerMethod)
+                : null;
+
+        if (gate != null) {
+            if (gate.isOpen()) {
+                return gate.getModuleName() == null || admit(gate.getModuleName(), request, response);
+            }
+            moduleName = gate.getModuleName();
+            module = gate.getModule();
+        } else {
+            moduleName = resolveModuleName(handlerMethod.getBeanType());
+
+            // 如果没有找到模块，允许请求通过
+            if (!StringUtils.hasText(moduleName)) {
+                return true;
+            }
+            if (moduleRegistry.isModuleReady(moduleName)) {
+                return admit(moduleName, request, response);
+            }
+        }
+
+        if (module == null) {
+            module = moduleRegistry.getModule(moduleName);
+        }
+        boolean lazy = module != null && module.isLazy();
+
+        // 延迟模块在首次被请求时才初始化其依赖链
+        if (lazy && moduleLifecycleManager != null && module.getState() == ModuleState.REGISTERED) {
+            log.info("Lazy module [{}] requested, initializing on request to: {}", moduleName, request.getRequestURI());
+            moduleLifecycleManager.initializeModuleAsync(moduleName);
+        }
+
+        if (moduleRequestParker != null && (requestParkingEnabled || lazy)
+                && moduleRequestParker.park(request, response, moduleName)) {
+            fireGateDecision(moduleName, ModuleGateOutcome.PARKED, request);
+            return false;
+        }
+
+        log.warn("Module [{}] is not ready, blocking request to: {}", moduleName, request.getRequestURI());
+        writeNotReadyResponse(response, moduleName);
+        fireGateDecision(moduleName, ModuleGateOutcome.REJECTED, request);
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request,
+                                @NonNull HttpServletResponse response,
+                                @NonNull Object handler,
+                                Exception ex) {
+        releaseBulkhead(request);
+    }
+
+    /**
+     * 异步请求在开始异步处理后释放Servlet线程，同时释放舱壁许可，舱壁只限制占用Servlet线程的请求；
+     * 异步处理结束后的重新分派不再经过门禁和舱壁，已完成的结果不会被拒绝
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+                                               @NonNull HttpServletResponse response,
+                                               @NonNull Object handler) {
+        request.setAttribute(ASYNC_ADMITTED_ATTRIBUTE, Boolean.TRUE);
+        releaseBulkhead(request);
+    }
+
+    /**
+     * 放行已就绪模块的请求，模块并发请求数已达上限时以429拒绝
+     *
+     * @param moduleName 模块名称
+     * @param request    请求
+     * @param response   响应
+     * @return true如果请求可以继续处理
+     */
+    private boolean admit(String moduleName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ModuleBulkhead bulkhead = bulkheads.get(moduleName);
+        if (bulkhead == null) {
+            bulkhead = bulkheads.computeIfAbsent(moduleName, this::createBulkhead);
+        }
+
+        // 转发等嵌套分派沿用外层分派已获取的许可
+        if (!bulkhead.isLimited() || request.getAttribute(BULKHEAD_ATTRIBUTE) != null) {
+            fireGateDecision(moduleName, ModuleGateOutcome.PASSED, request);
+            return true;
+        }
+        if (bulkhead.tryAcquire()) {
+            request.setAttribute(BULKHEAD_ATTRIBUTE, bulkhead);
+            fireGateDecision(moduleName, ModuleGateOutcome.PASSED, request);
+            return true;
+        }
+
+        log.debug("Module [{}] reached its concurrent request limit, rejecting request to: {}", moduleName, request.getRequestURI());
+        byte[] body = bulkhead.getRejectedBody();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        fireGateDecision(moduleName, ModuleGateOutcome.THROTTLED, request);
+        return false;
+    }
+
+    /**
+     * 创建模块舱壁，配置属性优先，其次为模块控制器注解中最小的并发限制
+     *
+     * @param moduleName 模块名称
+     * @return 模块舱壁
+     */
+    private ModuleBulkhead createBulkhead(String moduleName) {
+        Integer limit = maxConcurrentRequests.get(moduleName);
+        if (limit == null && moduleRequestMappingHandlerMapping != null) {
+            limit = moduleRequestMappingHandlerMapping.getMaxConcurrentRequests(moduleName);
+        }
+        return new ModuleBulkhead(moduleName, limit != null ? limit : 0);
+    }
+
+    private void releaseBulkhead(HttpServletRequest request) {
+        Object bulkhead = request.getAttribute(BULKHEAD_ATTRIBUTE);
+        if (bulkhead != null) {
+            request.removeAttribute(BULKHEAD_ATTRIBUTE);
+            ((ModuleBulkhead) bulkhead).release();
+        }
+    }
+
+    private void fireGateDecision(String moduleName, ModuleGateOutcome outcome, HttpServletRequest request) {
+        if (gateListeners.isEmpty()) {
+            return;
+        }
+        for (ModuleGateListener listener : gateListeners) {
+            try {
+                listener.onGateDecision(moduleName, outcome, request);
+            } catch (Exception e) {
+                log.error("Module gate listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * 写入模块未就绪响应，响应头和响应体按模块缓存，只在就绪时间的估算结果因模块状态变化而更新后重建一次，
+     * 其余时候直接写入缓存的字节
+     *
+     * @param response   响应
+     * @param moduleName 模块名称
+     */
+    private void writeNotReadyResponse(HttpServletResponse response, String moduleName) throws IOException {
+        ModuleState state = moduleRegistry.getModuleState(moduleName);
+        long version = moduleReadinessEstimator.getVersion();
 
-        Class<?> controllerClass = handlerMethod.getBeanType();
+        NotReadyResponse notReadyResponse = notReadyResponses.get(moduleName);
+        if (notReadyResponse == null || notReadyResponse.version != version || notReadyResponse.state != state) {
+            long eta = moduleReadinessEstimator.estimateTimeToReady(moduleName);
+            long retryAfterSeconds = eta < 0 ? DEFAULT_RETRY_AFTER_SECONDS : Math.max((eta + 999) / 1000, 1);
+            notReadyResponse = new NotReadyResponse(moduleName, state, version, retryAfterSeconds);
+            notReadyResponses.put(moduleName, notReadyResponse);
+        }
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, notReadyResponse.retryAfter);
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(notReadyResponse.body.length);
+        response.getOutputStream().write(notReadyResponse.body);
+    }
+
+    /**
+     * 解析不在门禁表中的控制器所属的模块名称
+     *
+     * @param controllerClass 控制器类型
+     * @return 模块名称，不属于任何模块时返回null
+     */
+    private String resolveModuleName(Class<?> controllerClass) {
         String moduleName = null;
 
         // 优先从ModuleRequestMappingHandlerMapping获取模块信息
@@ -62,8 +336,7 @@ public class ModuleInterceptor implements HandlerInterceptor {
 
             if (!StringUtils.hasText(moduleName)) {
                 // 尝试从包名推断模块
-                String packageName = controllerClass.getPackage().getName();
-                Module module = moduleRegistry.findModuleByPackage(packageName);
+                Module module = moduleRegistry.findModuleByClass(controllerClass);
 
                 if (module != null) {
                     moduleName = module.getName();
@@ -71,21 +344,48 @@ public class ModuleInterceptor implements HandlerInterceptor {
             }
         }
 
-        // 如果没有找到模块，允许请求通过
-        if (!StringUtils.hasText(moduleName)) {
-            return true;
-        }
+        return moduleName;
+    }
 
-        // 检查模块是否就绪
-        boolean isModuleReady = moduleRegistry.isModuleReady(moduleName);
-        if (!isModuleReady) {
-            log.warn("Module [{}] is not ready, blocking request to: {}", moduleName, request.getRequestURI());
-            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
-            response.setContentType("application/json");
-            response.getWriter().write("{\"error\":\"Module is initializing, please try again later.\",\"module\":\"" + moduleName + "\"}");
-            return false;
+    /**
+     * 转义JSON字符串值中的引号、反斜杠和控制字符
+     *
+     * @param value 原始字符串
+     * @return 转义后的字符串
+     */
+    static String escapeJson(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
         }
+        return builder.toString();
+    }
 
-        return true;
+    /**
+     * 预先序列化的模块未就绪响应
+     */
+    private static final class NotReadyResponse {
+
+        private final ModuleState state;
+        private final long version;
+        private final String retryAfter;
+        private final byte[] body;
+
+        private NotReadyResponse(String moduleName, ModuleState state, long version, long retryAfterSeconds) {
+            this.state = state;
+            this.version = version;
+            this.retryAfter = String.valueOf(retryAfterSeconds);
+            this.body = ("{\"error\":\"Module is initializing, please try again later.\""
+                    + ",\"module\":\"" + escapeJson(moduleName) + "\""
+                    + ",\"state\":\"" + state + "\""
+                    + ",\"retryAfter\":" + retryAfterSeconds + "}").getBytes(StandardCharsets.UTF_8);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -7,14 +7,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.mvc.condition.PathPatternsRequestCondition;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.util.pattern.PathPattern;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,16 +35,38 @@ public class ModuleRequestMappingHandlerMapping extends RequestMappingHandlerMap
     private final Map<Class<?>, String> moduleMap = new ConcurrentHashMap<>();
     private final Map<String, Set<RequestMappingInfo>> modulePathMap = new ConcurrentHashMap<>();
     private final Map<String, Set<String>> moduleUrlPatterns = new ConcurrentHashMap<>();
+    private final Map<String, Integer> moduleConcurrencyLimits = new ConcurrentHashMap<>();
+    private final List<HandlerRegistration> handlerRegistrations = new ArrayList<>();
+    private volatile Map<Method, ModuleGate> gateTable = Collections.emptyMap();
+    private volatile boolean gateTableInitialized;
 
     public ModuleRequestMappingHandlerMapping(ModuleRegistry moduleRegistry) {
         this.moduleRegistry = moduleRegistry;
         setOrder(0); // 设置优先级高于默认的RequestMappingHandlerMapping
+        // 模块注册或注销后重建门禁表，保证门禁引用最新的模块实例
+        moduleRegistry.addRegistrationListener(this::rebuildGateTable);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        gateTableInitialized = true;
+        rebuildGateTable();
     }
 
     @Override
     protected void registerHandlerMethod(Object handler, Method method, RequestMappingInfo mapping) {
         super.registerHandlerMethod(handler, method, mapping);
 
+        // 记录控制器方法，用于构建门禁表
+        HandlerMethod handlerMethod = createHandlerMethod(handler, method);
+        synchronized (handlerRegistrations) {
+            handlerRegistrations.add(new HandlerRegistration(handlerMethod.getMethod(), handlerMethod.getBeanType()));
+        }
+        if (gateTableInitialized) {
+            rebuildGateTable();
+        }
+
         // 记录控制器方法对应的模块
         if (handler instanceof Class) {
             Class<?> handlerClass = (Class<?>) handler;
@@ -93,6 +120,7 @@ public class ModuleRequestMappingHandlerMapping extends RequestMappingHandlerMap
 
                     // 记录模块与映射的关系
                     recordModuleMapping(moduleName, info);
+                    recordConcurrencyLimit(moduleName, handlerType);
                 }
             }
         }
@@ -100,6 +128,26 @@ public class ModuleRequestMappingHandlerMapping extends RequestMappingHandlerMap
         return info;
     }
 
+    /**
+     * 记录控制器注解声明的模块并发限制，同一模块取最小值
+     */
+    private void recordConcurrencyLimit(String moduleName, Class<?> handlerType) {
+        ModuleController moduleAnnotation = AnnotationUtils.findAnnotation(handlerType, ModuleController.class);
+        if (moduleAnnotation != null && moduleAnnotation.maxConcurrentRequests() > 0) {
+            moduleConcurrencyLimits.merge(moduleName, moduleAnnotation.maxConcurrentRequests(), Math::min);
+        }
+    }
+
+    /**
+     * 获取模块控制器注解声明的最大并发请求数
+     *
+     * @param moduleName 模块名称
+     * @return 最大并发请求数，没有控制器声明时返回null
+     */
+    public Integer getMaxConcurrentRequests(String moduleName) {
+        return moduleConcurrencyLimits.get(moduleName);
+    }
+
     /**
      * 解析控制器所属的模块名称
      *
@@ -117,8 +165,7 @@ public class ModuleRequestMappingHandlerMapping extends RequestMappingHandlerMap
         }
 
         // 尝试从包名推断
-        String packageName = handlerType.getPackage().getName();
-        Module module = moduleRegistry.findModuleByPackage(packageName);
+        Module module = moduleRegistry.findModuleByClass(handlerType);
         if (module != null) {
             return module.getName();
         }
@@ -126,6 +173,45 @@ public class ModuleRequestMappingHandlerMapping extends RequestMappingHandlerMap
         return null;
     }
 
+    /**
+     * 获取控制器方法的模块门禁，请求时只做一次按引用的查找
+     *
+     * @param handlerMethod 控制器方法
+     * @return 模块门禁，控制器方法未在门禁表中时返回null
+     */
+    public ModuleGate getModuleGate(HandlerMethod handlerMethod) {
+        ModuleGate gate = gateTable.get(handlerMethod.getMethod());
+        // 同一方法对象可能被多个控制器继承，类型不一致时交由调用方按原方式解析
+        return gate != null && gate.getBeanType() == handlerMethod.getBeanType() ? gate : null;
+    }
+
+    /**
+     * 根据已注册的控制器方法重建不可变的门禁表，包括不属于任何模块的控制器方法
+     */
+    private void rebuildGateTable() {
+        if (!gateTableInitialized) {
+            return;
+        }
+
+        synchronized (handlerRegistrations) {
+            Map<Class<?>, ModuleGate> gatesByType = new HashMap<>();
+            Map<Method, ModuleGate> table = new IdentityHashMap<>(handlerRegistrations.size());
+
+            for (HandlerRegistration registration : handlerRegistrations) {
+                ModuleGate gate = gatesByType.computeIfAbsent(registration.beanType, this::createModuleGate);
+                table.putIfAbsent(registration.method, gate);
+            }
+
+            this.gateTable = table;
+        }
+    }
+
+    private ModuleGate createModuleGate(Class<?> beanType) {
+        String moduleName = resolveModuleName(beanType);
+        Module module = moduleName != null ? moduleRegistry.getModule(moduleName) : null;
+        return new ModuleGate(beanType, moduleName, module);
+    }
+
     /**
      * 获取控制器所属的模块名称
      *
@@ -173,4 +259,18 @@ public class ModuleRequestMappingHandlerMapping extends RequestMappingHandlerMap
     public Map<String, Set<RequestMappingInfo>> getAllModuleMappings() {
         return Collections.unmodifiableMap(modulePathMap);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 已注册的控制器方法
+     */
+    private static final class HandlerRegistration {
+
+        private final Method method;
+        private final Class<?> beanType;
+
+        private HandlerRegistration(Method method, Class<?> beanType) {
+            this.method = method;
+            this.beanType = beanType;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.dbapp.xsiam.spring.module.web;
+
+import com.dbapp.xsiam.spring.module.event.ModuleFailedEvent;
+import com.dbapp.xsiam.spring.module.event.ModuleReadyEvent;
+import com.dbapp.xsiam.spring.module.manager.ModuleRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 模块请求暂存器，模块未就绪时通过Servlet异步暂存请求而不占用Servlet线程，
+ * 模块就绪、失败或等待超时后重新分派请求，由{@link ModuleInterceptor}再次判断放行或拒绝
+ */
+@Slf4j
+public class ModuleRequestParker {
+
+    /**
+     * 请求属性，标记请求已被暂存过，重新分派后不会再次暂存
+     */
+    public static final String PARKED_ATTRIBUTE = ModuleRequestParker.class.getName() + ".PARKED";
+
+    private final ModuleRegistry moduleRegistry;
+    private final int maxParkedRequests;
+    private final long maxParkTime;
+    private final Map<String, ParkingLot> parkingLots = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param moduleRegistry    模块注册中心
+     * @param maxParkedRequests 每个模块最多暂存的请求数
+     * @param maxParkTime       请求最长暂存时间（毫秒）
+     */
+    public ModuleRequestParker(ModuleRegistry moduleRegistry, int maxParkedRequests, long maxParkTime) {
+        Assert.notNull(moduleRegistry, "ModuleRegistry must not be null");
+        Assert.isTrue(maxParkedRequests > 0, "Max parked requests must be positive");
+        Assert.isTrue(maxParkTime > 0, "Max park time must be positive");
+        this.moduleRegistry = moduleRegistry;
+        this.maxParkedRequests = maxParkedRequests;
+        this.maxParkTime = maxParkTime;
+    }
+
+    /**
+     * 暂存访问未就绪模块的请求
+     *
+     * @param request    请求
+     * @param response   响应
+     * @param moduleName 模块名称
+     * @return true如果请求已暂存；已暂存过、不支持异步或暂存队列已满时返回false，由调用方直接拒绝
+     */
+    public boolean park(HttpServletRequest request, HttpServletResponse response, String moduleName) {
+        if (request.getAttribute(PARKED_ATTRIBUTE) != null || !request.isAsyncSupported()) {
+            return false;
+        }
+
+        ParkingLot parkingLot = parkingLots.computeIfAbsent(moduleName, k -> new ParkingLot());
+        if (!parkingLot.tryReserve(maxParkedRequests)) {
+            log.warn("Parking queue of module [{}] is full, rejecting request to: {}", moduleName, request.getRequestURI());
+            return false;
+        }
+
+        AsyncContext asyncContext;
+        try {
+            request.setAttribute(PARKED_ATTRIBUTE, Boolean.TRUE);
+            asyncContext = request.startAsync(request, response);
+        } catch (IllegalStateException e) {
+            parkingLot.release();
+            log.warn("Failed to park request to: {}", request.getRequestURI(), e);
+            return false;
+        }
+
+        asyncContext.setTimeout(maxParkTime);
+        ParkedRequest parkedRequest = new ParkedRequest(asyncContext, parkingLot);
+        asyncContext.addListener(parkedRequest);
+        parkingLot.requests.add(parkedRequest);
+        log.debug("Module [{}] is not ready, parked request to: {}", moduleName, request.getRequestURI());
+
+        // 暂存期间模块可能已经结束初始化，此时事件已发布，需要主动恢复
+        if (moduleRegistry.getModuleState(moduleName).isTerminal()) {
+            resumeAll(moduleName);
+        }
+        return true;
+    }
+
+    /**
+     * 获取模块当前暂存的请求数
+     *
+     * @param moduleName 模块名称
+     * @return 暂存的请求数
+     */
+    public int getParkedCount(String moduleName) {
+        ParkingLot parkingLot = parkingLots.get(moduleName);
+        return parkingLot != null ? parkingLot.count.get() : 0;
+    }
+
+    /**
+     * 模块就绪后恢复暂存的请求
+     *
+     * @param event 模块就绪事件
+     */
+    @EventListener
+    public void onModuleReady(ModuleReadyEvent event) {
+        resumeAll(event.getModule().getName());
+    }
+
+    /**
+     * 模块初始化失败后恢复暂存的请求，重新分派后由拦截器拒绝
+     *
+     * @param event 模块失败事件
+     */
+    @EventListener
+    public void onModuleFailed(ModuleFailedEvent event) {
+        resumeAll(event.getModule().getName());
+    }
+
+    private void resumeAll(String moduleName) {
+        ParkingLot parkingLot = parkingLots.get(moduleName);
+        if (parkingLot == null) {
+            return;
+        }
+
+        ParkedRequest parkedRequest;
+        while ((parkedRequest = parkingLot.requests.poll()) != null) {
+            parkedRequest.resume();
+        }
+    }
+
+    /**
+     * 单个模块的暂存队列
+     */
+    private static final class ParkingLot {
+
+        private final Queue<ParkedRequest> requests = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger count = new AtomicInteger();
+
+        private boolean tryReserve(int limit) {
+            while (true) {
+                int current = count.get();
+                if (current >= limit) {
+                    return false;
+                }
+                if (count.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release() {
+            count.decrementAndGet();
+        }
+    }
+
+    /**
+     * 暂存的请求，恢复、超时和出错只会处理一次
+     */
+    private static final class ParkedRequest implements AsyncListener {
+
+        private final AsyncContext asyncContext;
+        private final ParkingLot parkingLot;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private ParkedRequest(AsyncContext asyncContext, ParkingLot parkingLot) {
+            this.asyncContext = asyncContext;
+            this.parkingLot = parkingLot;
+        }
+
+        /**
+         * 重新分派请求
+         */
+        private void resume() {
+            if (finish()) {
+                try {
+                    asyncContext.dispatch();
+                } catch (IllegalStateException e) {
+                    log.debug("Parked request already completed", e);
+                }
+            }
+        }
+
+        private boolean finish() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            parkingLot.requests.remove(this);
+            parkingLot.release();
+            return true;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            resume();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
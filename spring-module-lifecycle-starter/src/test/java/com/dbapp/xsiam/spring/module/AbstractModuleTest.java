@@ -0,0 +1,109 @@
+package com.dbapp.xsiam.spring.module;
+
+import com.dbapp.xsiam.spring.module.enums.ModuleState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AbstractModuleTest {
+
+    @Test
+    void compareAndSetStateAdvancesVersionOnlyOnSuccess() {
+        TestModule module = new TestModule("a");
+        assertEquals(ModuleState.UNREGISTERED, module.getState());
+        long version = module.getStateVersion();
+
+        assertTrue(module.compareAndSetState(ModuleState.UNREGISTERED, ModuleState.REGISTERED));
+        assertEquals(version + 1, module.getStateVersion());
+
+        // 期望状态不符
+        assertFalse(module.compareAndSetState(ModuleState.UNREGISTERED, ModuleState.REGISTERED));
+        // 非法状态变更
+        assertFalse(module.compareAndSetState(ModuleState.REGISTERED, ModuleState.READY));
+        assertEquals(ModuleState.REGISTERED, module.getState());
+        assertEquals(version + 1, module.getStateVersion());
+    }
+
+    @Test
+    void setStateRejectsIllegalTransition() {
+        TestModule module = new TestModule("a");
+        module.setState(ModuleState.REGISTERED);
+        long version = module.getStateVersion();
+
+        module.setState(ModuleState.REGISTERED);
+        assertEquals(version, module.getStateVersion());
+        assertThrows(IllegalStateException.class, () -> module.setState(ModuleState.READY));
+        assertEquals(ModuleState.REGISTERED, module.getState());
+    }
+
+    @Test
+    void stateListenersSeeEachTransitionOnce() {
+        TestModule module = new TestModule("a");
+        List<String> transitions = new ArrayList<>();
+        module.addStateListener((m, previous, current) -> transitions.add(previous + "->" + current));
+
+        module.setState(ModuleState.REGISTERED);
+        module.initialize();
+
+        assertEquals(ModuleState.READY, module.getState());
+        assertEquals(List.of("UNREGISTERED->REGISTERED", "REGISTERED->INITIALIZING", "INITIALIZING->READY"), transitions);
+    }
+
+    @Test
+    void markFailedRecordsCause() {
+        TestModule module = new TestModule("a");
+        module.setState(ModuleState.REGISTERED);
+        IllegalStateException cause = new IllegalStateException("boom");
+
+        assertTrue(module.markFailed(cause));
+        assertEquals(ModuleState.FAILED, module.getState());
+        assertSame(cause, module.getFailureCause());
+        assertFalse(module.markFailed(new IllegalStateException("late")));
+        assertSame(cause, module.getFailureCause());
+    }
+
+    @Test
+    void concurrentCompareAndSetHasSingleWinner() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 100; round++) {
+                TestModule module = new TestModule("a");
+                module.setState(ModuleState.REGISTERED);
+                long version = module.getStateVersion();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return module.compareAndSetState(ModuleState.REGISTERED, ModuleState.INITIALIZING);
+                    }));
+                }
+                start.countDown();
+
+                int winners = 0;
+                for (Future<Boolean> result : results) {
+                    if (result.get(5, TimeUnit.SECONDS)) {
+                        winners++;
+                    }
+                }
+                assertEquals(1, winners);
+                assertEquals(version + 1, module.getStateVersion());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.dbapp.xsiam.spring.module;
+
+import java.util.Set;
+
+/**
+ * 测试用模块，初始化和销毁不做任何事情
+ */
+public class TestModule extends AbstractModule {
+
+    public TestModule(String name, String... dependencies) {
+        this(name, 0, Set.of(dependencies));
+    }
+
+    public TestModule(String name, int order, Set<String> dependencies, String... basePackages) {
+        super(name, "1.0.0", order, dependencies, basePackages);
+    }
+
+    @Override
+    protected void doInitialize() {
+    }
+
+    @Override
+    protected void doDestroy() {
+    }
+}
@@ -0,0 +1,40 @@
+package com.dbapp.xsiam.spring.module.enums;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.dbapp.xsiam.spring.module.enums.ModuleState.FAILED;
+import static com.dbapp.xsiam.spring.module.enums.ModuleState.INITIALIZING;
+import static com.dbapp.xsiam.spring.module.enums.ModuleState.READY;
+import static com.dbapp.xsiam.spring.module.enums.ModuleState.REGISTERED;
+import static com.dbapp.xsiam.spring.module.enums.ModuleState.UNREGISTERED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ModuleStateTest {
+
+    private static final Map<ModuleState, Set<ModuleState>> ALLOWED = Map.of(
+            UNREGISTERED, EnumSet.of(REGISTERED),
+            REGISTERED, EnumSet.of(INITIALIZING, FAILED, UNREGISTERED),
+            INITIALIZING, EnumSet.of(READY, FAILED, UNREGISTERED),
+            READY, EnumSet.of(REGISTERED, UNREGISTERED),
+            FAILED, EnumSet.of(REGISTERED, UNREGISTERED)
+    );
+
+    @Test
+    void canTransitionToMatchesLifecycle() {
+        for (ModuleState from : ModuleState.values()) {
+            for (ModuleState to : ModuleState.values()) {
+                assertEquals(ALLOWED.get(from).contains(to), from.canTransitionTo(to), from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void terminalStates() {
+        assertEquals(EnumSet.of(READY, FAILED), EnumSet.copyOf(
+                EnumSet.allOf(ModuleState.class).stream().filter(ModuleState::isTerminal).toList()));
+    }
+}
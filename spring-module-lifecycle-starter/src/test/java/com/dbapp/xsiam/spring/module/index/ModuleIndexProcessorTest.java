@@ -0,0 +1,110 @@
+package com.dbapp.xsiam.spring.module.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModuleIndexProcessorTest {
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void indexRoundTrip() throws Exception {
+        Path output = compile(Map.of(
+                "com/example/orders/OrderService.java", """
+                        package com.example.orders;
+                        @com.dbapp.xsiam.spring.module.annotation.ModuleComponent("orderService")
+                        public class OrderService {
+                            @com.dbapp.xsiam.spring.module.annotation.ModuleComponent
+                            public static class Nested {
+                            }
+                        }
+                        """,
+                "com/example/billing/BillingService.java", """
+                        package com.example.billing;
+                        @com.dbapp.xsiam.spring.module.annotation.ModuleComponent
+                        public class BillingService {
+                        }
+                        """,
+                "com/example/billing/Plain.java", """
+                        package com.example.billing;
+                        public class Plain {
+                        }
+                        """));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{output.toUri().toURL()}, null)) {
+            ModuleIndex index = ModuleIndex.load(classLoader);
+            assertNotNull(index);
+
+            Map<String, String> entries = index.getEntries().stream()
+                    .collect(Collectors.toMap(ModuleIndexEntry::getClassName, ModuleIndexEntry::getBeanName));
+            assertEquals(Map.of(
+                    "com.example.billing.BillingService", "",
+                    "com.example.orders.OrderService", "orderService",
+                    "com.example.orders.OrderService$Nested", ""), entries);
+
+            List<ModuleIndexEntry> orders = index.getEntries("com.example.orders", ModuleIndexEntry.Type.COMPONENT);
+            assertEquals(2, orders.size());
+            assertTrue(index.getEntries("com.example.order", ModuleIndexEntry.Type.COMPONENT).isEmpty());
+
+            assertTrue(index.isComplete("com.example.orders", classLoader));
+            assertFalse(index.isComplete("com.example.unknown", classLoader));
+        }
+    }
+
+    @Test
+    void noIndexWithoutModuleComponents() throws Exception {
+        Path output = compile(Map.of("com/example/Plain.java", "package com.example; public class Plain {}"));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{output.toUri().toURL()}, null)) {
+            assertNull(ModuleIndex.load(classLoader));
+        }
+    }
+
+    /**
+     * 以模块索引处理器编译源文件
+     *
+     * @param sources 相对路径到源码的映射
+     * @return 编译输出目录
+     */
+    private Path compile(Map<String, String> sources) throws IOException {
+        Path sourceDir = Files.createDirectories(workDir.resolve("src"));
+        Path outputDir = Files.createDirectories(workDir.resolve("classes"));
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Path file = sourceDir.resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromPaths(
+                    sources.keySet().stream().map(sourceDir::resolve).toList());
+            List<String> options = List.of("-d", outputDir.toString(),
+                    "-classpath", System.getProperty("java.class.path"));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+            task.setProcessors(List.of(new ModuleIndexProcessor()));
+            assertTrue(task.call(), "compilation failed");
+        }
+        return outputDir;
+    }
+}
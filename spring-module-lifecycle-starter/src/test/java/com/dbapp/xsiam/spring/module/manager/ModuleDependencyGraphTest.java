@@ -0,0 +1,79 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.TestModule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModuleDependencyGraphTest {
+
+    @Test
+    void sortsDependenciesBeforeDependents() {
+        ModuleDependencyGraph graph = ModuleDependencyGraph.build(List.of(
+                new TestModule("web", 0, Set.of("service")),
+                new TestModule("service", 0, Set.of("dao", "cache")),
+                new TestModule("dao", 0, Set.of()),
+                new TestModule("cache", 0, Set.of("dao")),
+                new TestModule("standalone", 0, Set.of())
+        ));
+
+        assertFalse(graph.hasCycles());
+        List<String> names = names(graph.getSortedModules());
+        assertEquals(5, names.size());
+        for (Module module : graph.getSortedModules()) {
+            for (String dependency : module.getDependencies()) {
+                assertTrue(names.indexOf(dependency) < names.indexOf(module.getName()), dependency + " before " + module.getName());
+            }
+        }
+    }
+
+    @Test
+    void unconstrainedModulesFollowOrderThenName() {
+        ModuleDependencyGraph graph = ModuleDependencyGraph.build(List.of(
+                new TestModule("c", 1, Set.of()),
+                new TestModule("b", 2, Set.of()),
+                new TestModule("a", 2, Set.of())
+        ));
+
+        assertEquals(List.of("c", "a", "b"), names(graph.getSortedModules()));
+    }
+
+    @Test
+    void detectsCyclesAndSelfDependencies() {
+        ModuleDependencyGraph graph = ModuleDependencyGraph.build(List.of(
+                new TestModule("a", 0, Set.of("b")),
+                new TestModule("b", 0, Set.of("c")),
+                new TestModule("c", 0, Set.of("a")),
+                new TestModule("self", 0, Set.of("self")),
+                new TestModule("ok", 0, Set.of())
+        ));
+
+        assertTrue(graph.hasCycles());
+        assertEquals(List.of(List.of("a", "b", "c", "a"), List.of("self", "self")), graph.getCycles());
+        assertEquals("a -> b -> c -> a; self -> self", graph.describeCycles());
+        assertEquals(5, graph.getSortedModules().size());
+    }
+
+    @Test
+    void reportsMissingDependencies() {
+        ModuleDependencyGraph graph = ModuleDependencyGraph.build(List.of(
+                new TestModule("a", 0, Set.of("x", "b")),
+                new TestModule("b", 0, Set.of())
+        ));
+
+        assertFalse(graph.hasCycles());
+        assertEquals(Map.of("a", Set.of("x")), graph.getMissingDependencies());
+        assertEquals(List.of("b", "a"), names(graph.getSortedModules()));
+    }
+
+    private static List<String> names(List<Module> modules) {
+        return modules.stream().map(Module::getName).toList();
+    }
+}
@@ -0,0 +1,137 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModuleInitSchedulerTest {
+
+    @Test
+    void dispatchesByWeightThenSubmissionOrder() {
+        ManualExecutor executor = new ManualExecutor();
+        ModuleInitScheduler scheduler = new ModuleInitScheduler(executor, 1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        scheduler.schedule("first", 0, () -> order.add("first"));
+        scheduler.schedule("light", 1, () -> order.add("light"));
+        scheduler.schedule("heavy-1", 5, () -> order.add("heavy-1"));
+        scheduler.schedule("heavy-2", 5, () -> order.add("heavy-2"));
+        assertEquals(1, executor.tasks.size());
+        assertEquals(3, scheduler.getQueuedCount());
+
+        executor.runAll();
+
+        assertEquals(List.of("first", "heavy-1", "heavy-2", "light"), order);
+        assertEquals(0, scheduler.getQueuedCount());
+    }
+
+    @Test
+    void neverExceedsMaxConcurrency() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            ModuleInitScheduler scheduler = new ModuleInitScheduler(executor, 3);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(scheduler.schedule("task-" + i, i % 4, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(5);
+                    running.decrementAndGet();
+                }));
+            }
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            assertEquals(3, maxRunning.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void cancelledQueuedTaskIsNotRun() {
+        ManualExecutor executor = new ManualExecutor();
+        ModuleInitScheduler scheduler = new ModuleInitScheduler(executor, 1);
+        List<String> order = new ArrayList<>();
+
+        scheduler.schedule("running", 0, () -> order.add("running"));
+        CompletableFuture<Void> cancelled = scheduler.schedule("cancelled", 0, () -> order.add("cancelled"));
+        scheduler.schedule("next", 0, () -> order.add("next"));
+        cancelled.cancel(false);
+        assertEquals(1, scheduler.getQueuedCount());
+
+        executor.runAll();
+
+        assertEquals(List.of("running", "next"), order);
+    }
+
+    @Test
+    void abandonedRunningTaskReleasesItsSlot() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            ModuleInitScheduler scheduler = new ModuleInitScheduler(executor, 1);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch interrupted = new CountDownLatch(1);
+            CompletableFuture<Void> hung = scheduler.schedule("hung", 0, () -> {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            });
+            CompletableFuture<Void> next = scheduler.schedule("next", 0, () -> {
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            hung.orTimeout(50, TimeUnit.MILLISECONDS);
+
+            next.get(5, TimeUnit.SECONDS);
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 只记录提交的任务，由测试线程逐个执行
+     */
+    private static final class ManualExecutor implements Executor {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        private void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+}
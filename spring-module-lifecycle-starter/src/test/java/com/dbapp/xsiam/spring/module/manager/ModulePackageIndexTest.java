@@ -0,0 +1,60 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import com.dbapp.xsiam.spring.module.TestModule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ModulePackageIndexTest {
+
+    private final TestModule parent = new TestModule("parent", 0, Set.of(), "com.example");
+    private final TestModule child = new TestModule("child", 0, Set.of(), "com.example.orders");
+    private final TestModule grandchild = new TestModule("grandchild", 0, Set.of(), "com.example.orders.api");
+    private final ModulePackageIndex index = ModulePackageIndex.build(List.of(grandchild, parent, child));
+
+    @Test
+    void findsLongestMatchingPrefix() {
+        assertSame(parent, index.find("com.example"));
+        assertSame(parent, index.find("com.example.billing"));
+        assertSame(child, index.find("com.example.orders"));
+        assertSame(child, index.find("com.example.orders.internal.impl"));
+        assertSame(grandchild, index.find("com.example.orders.api"));
+        assertSame(grandchild, index.find("com.example.orders.api.v2"));
+    }
+
+    @Test
+    void matchesWholeSegmentsOnly() {
+        assertSame(parent, index.find("com.example.ordersx"));
+        assertNull(index.find("com.examples"));
+        assertNull(index.find("org.other"));
+        assertNull(ModulePackageIndex.EMPTY.find("com.example"));
+    }
+
+    @Test
+    void lowerOrderWinsForSharedPackage() {
+        TestModule early = new TestModule("z-early", 1, Set.of(), "com.shared");
+        TestModule late = new TestModule("a-late", 2, Set.of(), "com.shared");
+        TestModule sameOrder = new TestModule("a-same", 1, Set.of(), "com.tie");
+        TestModule sameOrderOther = new TestModule("b-same", 1, Set.of(), "com.tie");
+
+        ModulePackageIndex shared = ModulePackageIndex.build(List.of(late, early, sameOrderOther, sameOrder));
+
+        assertEquals("z-early", shared.find("com.shared.x").getName());
+        assertEquals("a-same", shared.find("com.tie").getName());
+    }
+
+    @Test
+    void findsByClassPackage() {
+        TestModule module = new TestModule("manager", 0, Set.of(), ModulePackageIndex.class.getPackageName());
+        ModulePackageIndex classIndex = ModulePackageIndex.build(List.of(module));
+
+        assertSame(module, classIndex.findByClass(ModuleRegistry.class));
+        assertNull(classIndex.findByClass(String.class));
+        assertNull(classIndex.findByClass(String.class));
+    }
+}
@@ -0,0 +1,110 @@
+package com.dbapp.xsiam.spring.module.manager;
+
+import com.dbapp.xsiam.spring.module.Module;
+import com.dbapp.xsiam.spring.module.TestModule;
+import com.dbapp.xsiam.spring.module.enums.ModuleState;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModuleRegistryTest {
+
+    private final ModuleRegistry registry = new ModuleRegistry();
+
+    @Test
+    void whenReadyCompletesOnReady() throws Exception {
+        TestModule module = new TestModule("a");
+        registry.registerModule(module);
+        CompletableFuture<Module> future = registry.whenReady("a");
+        assertFalse(future.isDone());
+
+        module.initialize();
+
+        assertSame(module, future.get(1, TimeUnit.SECONDS));
+        assertTrue(registry.whenReady("a").isDone());
+        assertEquals(0, waiterCount());
+    }
+
+    @Test
+    void whenReadyTimesOutAndReleasesWaiter() {
+        registry.registerModule(new TestModule("a"));
+
+        CompletableFuture<Module> future = registry.whenReady("a", Duration.ofMillis(20));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertEquals(0, waiterCount());
+    }
+
+    @Test
+    void cancelledWaiterIsReleased() {
+        CompletableFuture<Module> future = registry.whenReady("never-registered");
+        assertEquals(1, waiterCount());
+
+        future.cancel(false);
+
+        assertEquals(0, waiterCount());
+    }
+
+    @Test
+    void whenReadyFailsForFailedModule() {
+        TestModule module = new TestModule("a");
+        registry.registerModule(module);
+        CompletableFuture<Module> pending = registry.whenReady("a");
+
+        module.markFailed(new IllegalStateException("boom"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> pending.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertTrue(registry.whenReady("a").isCompletedExceptionally());
+        assertEquals(0, waiterCount());
+    }
+
+    @Test
+    void whenReadyFailsWhenModuleIsUnregistered() {
+        registry.registerModule(new TestModule("a"));
+        CompletableFuture<Module> pending = registry.whenReady("a");
+
+        registry.unregisterModule("a");
+
+        assertTrue(pending.isCompletedExceptionally());
+        assertEquals(0, waiterCount());
+    }
+
+    @Test
+    void whenAllReadyCancelsRemainingWaitersOnFailure() {
+        TestModule a = new TestModule("a");
+        registry.registerModule(a);
+        registry.registerModule(new TestModule("b"));
+
+        CompletableFuture<Void> all = registry.whenAllReady("a", "b");
+        assertEquals(2, waiterCount());
+        a.markFailed(new IllegalStateException("boom"));
+
+        assertTrue(all.isCompletedExceptionally());
+        assertEquals(0, waiterCount());
+        assertEquals(ModuleState.REGISTERED, registry.getModuleState("b"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private int waiterCount() {
+        Map<String, List<?>> waiters = (Map<String, List<?>>) ReflectionTestUtils.getField(registry, "readyWaiters");
+        synchronized (waiters) {
+            return waiters.values().stream().mapToInt(List::size).sum();
+        }
+    }
+}
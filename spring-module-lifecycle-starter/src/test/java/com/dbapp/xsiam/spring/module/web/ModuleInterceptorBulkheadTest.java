@@ -0,0 +1,95 @@
+package com.dbapp.xsiam.spring.module.web;
+
+import com.dbapp.xsiam.spring.module.TestModule;
+import com.dbapp.xsiam.spring.module.annotation.ModuleController;
+import com.dbapp.xsiam.spring.module.enums.ModuleGateOutcome;
+import com.dbapp.xsiam.spring.module.manager.ModuleRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModuleInterceptorBulkheadTest {
+
+    private final ModuleRegistry registry = new ModuleRegistry();
+    private final ModuleInterceptor interceptor = new ModuleInterceptor(registry);
+    private final List<ModuleGateOutcome> outcomes = new ArrayList<>();
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestModule module = new TestModule("orders");
+        registry.registerModule(module);
+        module.initialize();
+        interceptor.setMaxConcurrentRequests(Map.of("orders", 2));
+        interceptor.addModuleGateListener((moduleName, outcome, request) -> outcomes.add(outcome));
+        handler = new HandlerMethod(new OrdersController(), OrdersController.class.getMethod("list"));
+    }
+
+    @Test
+    void rejectsRequestsBeyondLimitWith429() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(second, new MockHttpServletResponse(), handler));
+        assertFalse(interceptor.preHandle(new MockHttpServletRequest(), rejected, handler));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        assertTrue(rejected.getContentAsString().contains("\"module\":\"orders\""));
+        assertTrue(rejected.getContentAsString().contains("\"maxConcurrentRequests\":2"));
+        assertEquals(List.of(ModuleGateOutcome.PASSED, ModuleGateOutcome.PASSED, ModuleGateOutcome.THROTTLED), outcomes);
+    }
+
+    @Test
+    void completionReleasesPermit() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(first, response, handler));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler));
+
+        interceptor.afterCompletion(first, response, handler, null);
+        // 重复的完成回调不会多释放许可
+        interceptor.afterCompletion(first, response, handler, null);
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler));
+        assertFalse(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler));
+    }
+
+    @Test
+    void nestedDispatchReusesOuterPermit() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+        interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler);
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler));
+    }
+
+    @Test
+    void unlimitedModuleIsNotThrottled() throws Exception {
+        interceptor.setMaxConcurrentRequests(Map.of());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler));
+        }
+    }
+
+    @ModuleController(module = "orders")
+    static class OrdersController {
+
+        public String list() {
+            return "orders";
+        }
+    }
+}